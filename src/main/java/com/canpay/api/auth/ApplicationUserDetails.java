@@ -31,7 +31,14 @@ public class ApplicationUserDetails implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
+        return authoritiesFor(user.getRole());
+    }
+
+    /**
+     * Authorities granted to a user with the given role.
+     */
+    public static Collection<? extends GrantedAuthority> authoritiesFor(UserRole role) {
+        return Collections.singleton(new SimpleGrantedAuthority("ROLE_" + role));
     }
 
     @Override
@@ -1,11 +1,14 @@
 package com.canpay.api.controller;
 
+import com.canpay.api.dto.AuthTokensDto;
+import com.canpay.api.dto.LoginResultDto;
 import com.canpay.api.dto.UserDto;
 import com.canpay.api.entity.ResponseEntityBuilder;
 import com.canpay.api.entity.User;
 import com.canpay.api.entity.User.UserRole;
 import com.canpay.api.service.implementation.JwtService;
 import com.canpay.api.service.implementation.OTPService;
+import com.canpay.api.service.implementation.RefreshTokenService;
 import com.canpay.api.service.implementation.UserServiceImpl;
 import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
@@ -15,7 +18,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -24,12 +26,15 @@ public class AuthController {
         private final UserServiceImpl userServiceImpl;
         private final OTPService otpService;
         private final JwtService jwtService;
+        private final RefreshTokenService refreshTokenService;
         private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
-        public AuthController(OTPService otpService, UserServiceImpl userServiceImpl, JwtService jwtService) {
+        public AuthController(OTPService otpService, UserServiceImpl userServiceImpl, JwtService jwtService,
+                        RefreshTokenService refreshTokenService) {
                 this.otpService = otpService;
                 this.userServiceImpl = userServiceImpl;
                 this.jwtService = jwtService;
+                this.refreshTokenService = refreshTokenService;
         }
 
         @PostMapping("/send-otp")
@@ -94,33 +99,23 @@ public class AuthController {
                                         .buildWrapped();
                 }
 
-                Optional<User> existingUser = userServiceImpl.findByEmailAndRole(email, role);
-                if (existingUser.isPresent()) {
-                        User user = existingUser.get();
+                try {
+                        LoginResultDto login = userServiceImpl.loginOrRegister(email, role);
+                        User user = login.getUser();
                         String token = jwtService.generateToken(user);
-                        logger.info("Login successful for email: {} and role: {}", email, role);
                         Map<String, Object> responseData = Map.of(
-                                        "newUser", false,
+                                        "newUser", login.isNewUser(),
                                         "token", token,
+                                        "refreshToken", refreshTokenService.issue(user),
                                         "profile", new UserDto(user));
+                        if (login.isNewUser()) {
+                                logger.info("New role registered for email: {} and role: {}", email, role);
+                        } else {
+                                logger.info("Login successful for email: {} and role: {}", email, role);
+                        }
                         return new ResponseEntityBuilder.Builder<Map<String, Object>>()
-                                        .resultMessage("Login successful")
-                                        .httpStatus(HttpStatus.OK)
-                                        .body(responseData)
-                                        .buildWrapped();
-                }
-
-                try {
-                        User newUser = userServiceImpl.registerWithEmail(email, roleStr);
-                        logger.info("New role registered for email: {} and role: {}", email, roleStr);
-                        String token = jwtService.generateToken(newUser); // Generate token for new user
-
-                        Map<String, Object> responseData = Map.of(
-                                        "newUser", true,
-                                        "token", token,
-                                        "profile", new UserDto(newUser));
-                        return new ResponseEntityBuilder.Builder<Map<String, Object>>()
-                                        .resultMessage("OTP verified and new role registered")
+                                        .resultMessage(login.isNewUser() ? "OTP verified and new role registered"
+                                                        : "Login successful")
                                         .httpStatus(HttpStatus.OK)
                                         .body(responseData)
                                         .buildWrapped();
@@ -387,6 +382,52 @@ public class AuthController {
                                 .buildWrapped();
         }
 
+        @PostMapping("/refresh")
+        public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+                String refreshToken = request.get("refreshToken");
+                if (refreshToken == null || refreshToken.isBlank()) {
+                        return new ResponseEntityBuilder.Builder<Map<String, Object>>()
+                                        .resultMessage("Refresh token is required")
+                                        .httpStatus(HttpStatus.BAD_REQUEST)
+                                        .buildWrapped();
+                }
+
+                try {
+                        AuthTokensDto tokens = refreshTokenService.refresh(refreshToken);
+                        return new ResponseEntityBuilder.Builder<Map<String, Object>>()
+                                        .resultMessage("Token refreshed")
+                                        .httpStatus(HttpStatus.OK)
+                                        .body(Map.of(
+                                                        "token", tokens.getToken(),
+                                                        "refreshToken", tokens.getRefreshToken()))
+                                        .buildWrapped();
+                } catch (IllegalArgumentException e) {
+                        // The client falls back to the OTP flow
+                        logger.warn("Token refresh rejected: {}", e.getMessage());
+                        return new ResponseEntityBuilder.Builder<Map<String, Object>>()
+                                        .resultMessage(e.getMessage())
+                                        .httpStatus(HttpStatus.UNAUTHORIZED)
+                                        .body(Map.of("action", "otp"))
+                                        .buildWrapped();
+                }
+        }
+
+        @PostMapping("/logout")
+        public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
+                String refreshToken = request.get("refreshToken");
+                if (refreshToken != null && !refreshToken.isBlank()) {
+                        try {
+                                refreshTokenService.revoke(refreshToken);
+                        } catch (IllegalArgumentException e) {
+                                logger.debug("Ignoring malformed refresh token on logout");
+                        }
+                }
+                return new ResponseEntityBuilder.Builder<Void>()
+                                .resultMessage("Logged out")
+                                .httpStatus(HttpStatus.OK)
+                                .buildWrapped();
+        }
+
         // validate token
         // ===============================================
 
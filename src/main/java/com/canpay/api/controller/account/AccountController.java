@@ -1,8 +1,9 @@
 package com.canpay.api.controller.account;
 
 import com.canpay.api.dto.UserDto;
-import com.canpay.api.entity.User;
 //import com.canpay.api.jwt.JwtUtil;
+import com.canpay.api.entity.User;
+import com.canpay.api.jwt.JwtPrincipal;
 import com.canpay.api.service.implementation.BankAccountServiceImpl;
 import com.canpay.api.service.implementation.JwtService;
 import com.canpay.api.service.implementation.UserServiceImpl;
@@ -11,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -36,31 +38,21 @@ public class AccountController {
     @PatchMapping("/passenger-account")
     @PreAuthorize("hasRole('PASSENGER')")
     public ResponseEntity<?> updatePassengerAccount(
-            @RequestHeader(value = "Authorization") String authHeader,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestBody Map<String, String> request) {
         logger.debug("Received passenger account update request: {}", request);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String email;
-
-        try {
-            email = jwtService.extractEmail(token);
-            String tokenRole = jwtService.extractRole(token);
-            if (!"PASSENGER".equals(tokenRole)) {
-                logger.warn("Invalid role in token: {}", tokenRole);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("success", false, "message", "Invalid role for passenger account update"));
-            }
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid or expired token"));
+        String email = principal.getEmail();
+        if (!principal.hasRole(User.UserRole.PASSENGER)) {
+            logger.warn("Invalid role in token: {}", principal.getRole());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Invalid role for passenger account update"));
         }
 
         try {
@@ -139,26 +131,17 @@ public class AccountController {
 
     @GetMapping("/financial-details")
     @PreAuthorize("hasAnyRole('PASSENGER', 'OWNER')")
-    public ResponseEntity<?> getUserFinancialDetails(@RequestHeader(value = "Authorization") String authHeader) {
+    public ResponseEntity<?> getUserFinancialDetails(@AuthenticationPrincipal JwtPrincipal principal) {
         logger.debug("Received request for user financial details");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String email;
-        User.UserRole userRole;
-        try {
-            email = jwtService.extractEmail(token);
-            userRole = User.UserRole.valueOf(jwtService.extractRole(token));
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid or expired token"));
-        }
+        String email = principal.getEmail();
+        User.UserRole userRole = principal.getRole();
 
         try {
             Map<String, Object> financialDetails = userService.getUserFinancialDetails(email, userRole);
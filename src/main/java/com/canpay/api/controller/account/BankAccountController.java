@@ -4,9 +4,9 @@ import com.canpay.api.dto.AddBankAccountRequest;
 import com.canpay.api.dto.BankAccountDto;
 import com.canpay.api.entity.BankAccount;
 import com.canpay.api.entity.User;
+import com.canpay.api.jwt.JwtPrincipal;
 import com.canpay.api.repository.UserRepository;
 import com.canpay.api.service.implementation.BankAccountServiceImpl;
-import com.canpay.api.service.implementation.JwtService;
 import com.canpay.api.service.implementation.UserServiceImpl;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,13 +29,11 @@ public class BankAccountController {
 
     private static final Logger logger = LoggerFactory.getLogger(BankAccountController.class);
     private final UserRepository userRepository;
-    private final JwtService jwtService;
     private final BankAccountServiceImpl bankAccountService;
     private final UserServiceImpl userServiceImpl;
 
-    public BankAccountController(UserRepository userRepository, JwtService jwtService, BankAccountServiceImpl bankAccountService, UserServiceImpl userServiceImpl) {
+    public BankAccountController(UserRepository userRepository, BankAccountServiceImpl bankAccountService, UserServiceImpl userServiceImpl) {
         this.userRepository = userRepository;
-        this.jwtService = jwtService;
         this.bankAccountService = bankAccountService;
         this.userServiceImpl = userServiceImpl;
     }
@@ -72,29 +71,20 @@ public class BankAccountController {
     @GetMapping("/list")
     @PreAuthorize("hasRole('PASSENGER')")
     public ResponseEntity<?> getPassengerBankAccounts(
-            @RequestHeader(value = "Authorization") String authHeader) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         logger.debug("Received passenger bank accounts request");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String email;
-        try {
-            email = jwtService.extractEmail(token);
-            String tokenRole = jwtService.extractRole(token);
-            if (!"PASSENGER".equals(tokenRole)) {
-                logger.warn("Invalid role in token: {}", tokenRole);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("success", false, "message", "Invalid role for passenger bank accounts"));
-            }
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid or expired token"));
+        String email = principal.getEmail();
+        if (!principal.hasRole(User.UserRole.PASSENGER)) {
+            logger.warn("Invalid role in token: {}", principal.getRole());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Invalid role for passenger bank accounts"));
         }
 
         try {
@@ -126,25 +116,17 @@ public class BankAccountController {
     @PostMapping("/add")
     @PreAuthorize("hasRole('PASSENGER')")
     public ResponseEntity<?> addBankAccount(
-            @RequestHeader(value = "Authorization") String authHeader,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @Valid @RequestBody AddBankAccountRequest request) {
         logger.debug("Received request to add bank account");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String email;
-        try {
-            email = jwtService.extractEmail(token);
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid or expired token"));
-        }
+        String email = principal.getEmail();
 
         try {
             BankAccount bankAccount = userServiceImpl.addBankAccount(
@@ -1,82 +1,83 @@
 package com.canpay.api.controller.account;
 
-import com.canpay.api.entity.*;
-import com.canpay.api.repository.dashboard.DWalletRepository;
-import com.canpay.api.service.implementation.JwtService;
+import com.canpay.api.dto.PaymentReceiptDto;
+import com.canpay.api.dto.TapRequestDto;
+import com.canpay.api.dto.TapResultDto;
+import com.canpay.api.entity.User;
+import com.canpay.api.jwt.JwtPrincipal;
+import com.canpay.api.service.implementation.GroupCommitPaymentService;
+import com.canpay.api.service.implementation.IdempotencyService;
 //import com.canpay.api.service.implementation.MqttService;
-import com.canpay.api.service.implementation.UserServiceImpl;
-import com.canpay.api.repository.BusRepository;
-import com.canpay.api.repository.OperatorAssignmentRepository;
-import com.canpay.api.repository.TransactionRepository;
+import com.canpay.api.service.implementation.PaymentService;
+import com.canpay.api.service.ledger.LedgerEngine;
+import com.canpay.api.util.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/payment")
 public class PaymentController {
-    private final JwtService jwtService;
-    private final UserServiceImpl userService;
-    private final BusRepository busRepository;
-    private final OperatorAssignmentRepository operatorAssignmentRepository;
-    private final DWalletRepository walletRepository;
-    private final TransactionRepository transactionRepository;
+    private final PaymentService paymentService;
+    private final GroupCommitPaymentService groupCommitPaymentService;
+    private final IdempotencyService idempotencyService;
+    private final LedgerEngine ledgerEngine;
 //    private final MqttService mqttService;
     private final Logger logger = LoggerFactory.getLogger(PaymentController.class);
 
-    public PaymentController(JwtService jwtService, UserServiceImpl userService, BusRepository busRepository,
-                             OperatorAssignmentRepository operatorAssignmentRepository, DWalletRepository walletRepository,
-                             TransactionRepository transactionRepository)
+    // Maximum number of taps accepted in one batch upload
+    @Value("${app.payment.batch.max-taps:500}")
+    private int maxBatchTaps;
+
+    public PaymentController(PaymentService paymentService,
+                             GroupCommitPaymentService groupCommitPaymentService,
+                             IdempotencyService idempotencyService, LedgerEngine ledgerEngine)
 
 //                             MqttService mqttService)
     {
-        this.jwtService = jwtService;
-        this.userService = userService;
-        this.busRepository = busRepository;
-        this.operatorAssignmentRepository = operatorAssignmentRepository;
-        this.walletRepository = walletRepository;
-        this.transactionRepository = transactionRepository;
+        this.paymentService = paymentService;
+        this.groupCommitPaymentService = groupCommitPaymentService;
+        this.idempotencyService = idempotencyService;
+        this.ledgerEngine = ledgerEngine;
 //        this.mqttService = mqttService;
     }
 
     @PostMapping("/process")
     @PreAuthorize("hasRole('PASSENGER')")
-    @Transactional
-    public ResponseEntity<?> processPayment(@RequestHeader(value = "Authorization") String authHeader,
+    public ResponseEntity<?> processPayment(@AuthenticationPrincipal JwtPrincipal principal,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                             @RequestBody Map<String, String> request) {
         logger.debug("Received payment request: {}", request);
         System.out.println("came to the processPayment");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String passengerEmail;
-        try {
-            passengerEmail = jwtService.extractEmail(token);
-            String role = jwtService.extractRole(token);
-            if (!"PASSENGER".equals(role)) {
-                logger.warn("Invalid role: {}", role);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("success", false, "message", "Invalid role for payment"));
-            }
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid or expired token"));
+        String passengerEmail = principal.getEmail();
+        if (!principal.hasRole(User.UserRole.PASSENGER)) {
+            logger.warn("Invalid role: {}", principal.getRole());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Invalid role for payment"));
         }
 
+        // Retries with the same Idempotency-Key replay the first response
+        return idempotencyService.execute(idempotencyKey, "payment:" + passengerEmail, request,
+                () -> processPaymentRequest(passengerEmail, request));
+    }
+
+    private ResponseEntity<?> processPaymentRequest(String passengerEmail, Map<String, String> request) {
         try {
             // Validate request
             String busIdStr = request.get("busId");
@@ -91,92 +92,17 @@ public class PaymentController {
 
             UUID busId = UUID.fromString(busIdStr);
             UUID operatorId = UUID.fromString(operatorIdStr);
-            BigDecimal amount = new BigDecimal(amountStr);
-
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-                logger.warn("Invalid amount: {}", amount);
-                return ResponseEntity.badRequest()
-                        .body(Map.of("success", false, "message", "Amount must be greater than zero"));
-            }
-
-            // Fetch passenger
-            User passenger = userService.findUserByEmail(passengerEmail)
-                    .orElseThrow(() -> {
-                        logger.warn("Passenger not found: {}", passengerEmail);
-                        return new RuntimeException("Passenger not found");
-                    });
-
-            // Fetch passenger wallet
-            Wallet passengerWallet = walletRepository.findByUserAndType(passenger, Wallet.WalletType.PASSENGER)
-                    .orElseThrow(() -> {
-                        logger.warn("Passenger wallet not found for email: {}", passengerEmail);
-                        return new RuntimeException("Passenger wallet not found");
-                    });
-
-            // Check sufficient balance
-            if (passengerWallet.getBalance().compareTo(amount) < 0) {
-                logger.warn("Insufficient balance for passenger: {}, balance: {}, amount: {}",
-                        passengerEmail, passengerWallet.getBalance(), amount);
-                return ResponseEntity.badRequest()
-                        .body(Map.of("success", false, "message", "Insufficient balance"));
+            Money amount = Money.parse(amountStr);
+
+            PaymentReceiptDto receipt;
+            if (ledgerEngine.isEnabled()) {
+                receipt = paymentService.payThroughLedger(passengerEmail, busId, operatorId, amount);
+            } else if (groupCommitPaymentService.isEnabled()) {
+                receipt = groupCommitPaymentService.pay(passengerEmail, busId, operatorId, amount);
+            } else {
+                receipt = paymentService.pay(passengerEmail, busId, operatorId, amount);
             }
 
-            // Fetch bus
-            Bus bus = busRepository.findById(busId)
-                    .orElseThrow(() -> {
-                        logger.warn("Bus not found: {}", busId);
-                        return new RuntimeException("Bus not found");
-                    });
-
-            // Fetch operator
-            User operator = userService.findUserById(operatorId)
-                    .orElseThrow(() -> {
-                        logger.warn("Operator not found: {}", operatorId);
-                        return new RuntimeException("Operator not found");
-                    });
-
-            if (!operator.getRole().equals(User.UserRole.OPERATOR)) {
-                logger.warn("User is not an operator: {}", operatorId);
-                return ResponseEntity.badRequest()
-                        .body(Map.of("success", false, "message", "Invalid operator"));
-            }
-
-            // Fetch operator assignment to get owner
-            OperatorAssignment assignment = operatorAssignmentRepository.findByOperatorAndBus(operator, bus)
-                    .orElseThrow(() -> {
-                        logger.warn("Operator {} not assigned to bus {}", operatorId, busId);
-                        return new RuntimeException("Operator not assigned to bus");
-                    });
-
-            User owner = assignment.getBus().getOwner();
-            if (!owner.getRole().equals(User.UserRole.OWNER)) {
-                logger.warn("User is not an owner: {}", owner.getId());
-                return ResponseEntity.badRequest()
-                        .body(Map.of("success", false, "message", "Invalid owner"));
-            }
-
-            // Fetch owner wallet
-            Wallet ownerWallet = walletRepository.findByUserAndType(owner, Wallet.WalletType.OWNER)
-                    .orElseThrow(() -> {
-                        logger.warn("Owner wallet not found for email: {}", owner.getEmail());
-                        return new RuntimeException("Owner wallet not found");
-                    });
-
-            // Update wallets
-            passengerWallet.setBalance(passengerWallet.getBalance().subtract(amount));
-            ownerWallet.setBalance(ownerWallet.getBalance().add(amount));
-            walletRepository.save(passengerWallet);
-            walletRepository.save(ownerWallet);
-
-            // Create transaction
-            Transaction transaction = new Transaction(amount, Transaction.TransactionType.PAYMENT, passenger, bus, operator);
-            transaction.setOwner(owner);
-            transaction.setFromWallet(passengerWallet);
-            transaction.setToWallet(ownerWallet);
-            transaction.setStatus(Transaction.TransactionStatus.APPROVED);
-            transaction.setNote("Payment for bus " + bus.getBusNumber());
-            transactionRepository.save(transaction);
-
             // Send MQTT notifications
 //            mqttService.sendPaymentNotification(passenger.getId().toString(), "passenger",
 //                    "Payment of " + amount + " made for bus " + bus.getBusNumber());
@@ -185,18 +111,16 @@ public class PaymentController {
 //            mqttService.sendPaymentNotification(owner.getId().toString(), "owner",
 //                    "Payment of " + amount + " credited for bus " + bus.getBusNumber());
 
-            logger.info("Payment processed: passenger={}, bus={}, operator={}, owner={}, amount={}",
-                    passengerEmail, busId, operatorId, owner.getId(), amount);
-
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Payment processed successfully",
                     "data", Map.of(
-                            "transactionId", transaction.getId(),
-                            "amount", amount,
-                            "busNumber", bus.getBusNumber(),
-                            "operatorName", operator.getName(),
-                            "ownerEmail", owner.getEmail()
+                            "transactionId", receipt.getTransactionId(),
+                            "amount", receipt.getAmount(),
+                            "busNumber", receipt.getBusNumber(),
+                            "operatorName", receipt.getOperatorName(),
+                            "ownerEmail", receipt.getOwnerEmail(),
+                            "balance", receipt.getBalance()
                     )
             ));
 
@@ -210,4 +134,58 @@ public class PaymentController {
                     .body(Map.of("success", false, "message", "Payment processing failed: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('OPERATOR')")
+    public ResponseEntity<?> processBatch(@AuthenticationPrincipal JwtPrincipal principal,
+                                          @RequestBody List<TapRequestDto> taps) {
+        logger.debug("Received batch of {} taps", taps == null ? 0 : taps.size());
+
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
+        }
+
+        if (!principal.hasRole(User.UserRole.OPERATOR)) {
+            logger.warn("Invalid role: {}", principal.getRole());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Invalid role for batch upload"));
+        }
+        UUID operatorId = principal.getUserId();
+
+        // Batches write wallets directly, which the ledger engine owns when enabled
+        if (ledgerEngine.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "message", "Batch upload is not available in ledger mode"));
+        }
+        if (taps == null || taps.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "At least one tap is required"));
+        }
+        if (taps.size() > maxBatchTaps) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "A batch can contain at most " + maxBatchTaps + " taps"));
+        }
+
+        try {
+            List<TapResultDto> results = paymentService.payBatch(operatorId, taps);
+            long approved = results.stream().filter(r -> r.getStatus() == TapResultDto.TapStatus.APPROVED).count();
+            logger.info("Batch processed: operator={}, taps={}, approved={}", operatorId, taps.size(), approved);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Batch processed",
+                    "data", Map.of(
+                            "approved", approved,
+                            "total", results.size(),
+                            "results", results
+                    )
+            ));
+        } catch (RuntimeException e) {
+            logger.error("Batch processing failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "message", "Batch processing failed: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.canpay.api.controller.account;
+
+import com.canpay.api.dto.SyncResultDto;
+import com.canpay.api.jwt.JwtPrincipal;
+import com.canpay.api.service.implementation.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Returns the balance, transactions and bank account changes since the
+     * given cursor. Answers 304 when If-None-Match carries the current ETag.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('PASSENGER')")
+    public ResponseEntity<?> sync(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (principal == null || principal.getUserId() == null) {
+            logger.warn("Authenticated principal missing");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
+        }
+
+        try {
+            SyncResultDto result = syncService.sync(principal.getUserId(), since);
+            String eTag = "\"" + result.getCursor() + "\"";
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+            // A matching If-None-Match means the client already holds this state
+            if (eTag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(Map.of(
+                    "success", true,
+                    "message", result.isChanged() ? "Changes since cursor" : "No changes",
+                    "data", result));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid sync request for passenger: {}. Reason: {}", principal.getUserId(), e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.error("Sync failed for passenger: {}. Reason: {}", principal.getUserId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "message", "Failed to sync: " + e.getMessage()));
+        }
+    }
+}
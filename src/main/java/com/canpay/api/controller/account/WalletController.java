@@ -1,20 +1,24 @@
 package com.canpay.api.controller.account;
 
+import com.canpay.api.dto.RechargeReceiptDto;
 import com.canpay.api.dto.UserWalletBalanceDto;
+import com.canpay.api.dto.WalletHistoryPageDto;
 import com.canpay.api.entity.BankAccount;
 import com.canpay.api.entity.ResponseEntityBuilder;
 import com.canpay.api.entity.Transaction;
 import com.canpay.api.entity.User;
-import com.canpay.api.service.implementation.JwtService;
+import com.canpay.api.jwt.JwtPrincipal;
+import com.canpay.api.service.implementation.IdempotencyService;
 import com.canpay.api.service.implementation.WalletServiceImpl;
+import com.canpay.api.util.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,17 +27,18 @@ public class WalletController {
 
     private final WalletServiceImpl walletService;
     private static final Logger logger = LoggerFactory.getLogger(WalletController.class);
-    private final JwtService jwtService;
+    private final IdempotencyService idempotencyService;
 
-    public WalletController(WalletServiceImpl walletService, JwtService jwtService) {
+    public WalletController(WalletServiceImpl walletService, IdempotencyService idempotencyService) {
         this.walletService = walletService;
-        this.jwtService = jwtService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping("/recharge")
     @PreAuthorize("hasRole('PASSENGER')")
     public ResponseEntity<?> rechargePassengerWallet(
-            @RequestHeader(value = "Authorization") String authHeader,
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, String> request) {
         logger.debug("Received passenger recharge request: {}", request);
 
@@ -45,38 +50,29 @@ public class WalletController {
             return ResponseEntity.badRequest().body(Map.of("message", "Missing email or amount"));
         }
 
-        double amount;
+        Money amount;
         try {
-            amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            amount = Money.parse(amountStr);
+            if (!amount.isPositive()) {
                 logger.warn("Invalid amount: {}", amountStr);
                 return ResponseEntity.badRequest().body(Map.of("message", "Amount must be positive"));
             }
-        } catch (NumberFormatException e) {
+        } catch (IllegalArgumentException e) {
             logger.warn("Invalid amount format: {}", amountStr);
-            return ResponseEntity.badRequest().body(Map.of("message", "Invalid amount format"));
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String tokenEmail;
-        try {
-            tokenEmail = jwtService.extractEmail(token);
-            String tokenRole = jwtService.extractRole(token);
-            if (!"PASSENGER".equals(tokenRole)) {
-                logger.warn("Invalid role in token: {}", tokenRole);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("message", "Invalid role for passenger wallet"));
-            }
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Invalid or expired token"));
+        String tokenEmail = principal.getEmail();
+        if (!principal.hasRole(User.UserRole.PASSENGER)) {
+            logger.warn("Invalid role in token: {}", principal.getRole());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "Invalid role for passenger wallet"));
         }
 
         if (!email.equals(tokenEmail)) {
@@ -84,16 +80,23 @@ public class WalletController {
             return ResponseEntity.badRequest().body(Map.of("message", "Email does not match token"));
         }
 
+        // Retries with the same Idempotency-Key replay the first response
+        return idempotencyService.execute(idempotencyKey, "recharge:" + email, request,
+                () -> rechargeWallet(email, amount));
+    }
+
+    private ResponseEntity<?> rechargeWallet(String email, Money amount) {
         try {
-            walletService.rechargePassengerWallet(email, amount);
-            double currentBalance = walletService.getPassengerWalletBalance(email);
-            UserWalletBalanceDto walletBalanceDto = new UserWalletBalanceDto(email, currentBalance);
-            logger.info("Passenger wallet recharged for email: {}, amount: {}, new balance: {}", email, amount, currentBalance);
+            RechargeReceiptDto receipt = walletService.rechargePassengerWallet(email, amount);
+            UserWalletBalanceDto walletBalanceDto = new UserWalletBalanceDto(email, receipt.getBalance());
+            walletBalanceDto.setWalletNumber(receipt.getWalletNumber());
+            logger.info("Passenger wallet recharged for email: {}, amount: {}, new balance: {}", email, amount,
+                    receipt.getBalance());
 
 
             Map<String, Object> responseData = Map.of(
                     "newUser", false,
-                    "profile", new UserWalletBalanceDto(email, walletBalanceDto.getBalance())
+                    "profile", walletBalanceDto
             );
 
             return new ResponseEntityBuilder.Builder<Map<String, Object>>()
@@ -179,36 +182,27 @@ public class WalletController {
     @GetMapping("/balance")
     @PreAuthorize("hasRole('PASSENGER')")
     public ResponseEntity<?> getPassengerWalletBalance(
-            @RequestHeader(value = "Authorization") String authHeader) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         logger.debug("Received passenger wallet balance request");
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Authorization header missing or invalid");
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("success", false, "message", "Authorization header with Bearer token is required"));
         }
 
-        String token = authHeader.substring(7);
-        String email;
-        try {
-            email = jwtService.extractEmail(token);
-            String tokenRole = jwtService.extractRole(token);
-            if (!"PASSENGER".equals(tokenRole)) {
-                logger.warn("Invalid role in token: {}", tokenRole);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(Map.of("success", false, "message", "Invalid role for passenger wallet"));
-            }
-        } catch (Exception e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid or expired token"));
+        String email = principal.getEmail();
+        if (!principal.hasRole(User.UserRole.PASSENGER)) {
+            logger.warn("Invalid role in token: {}", principal.getRole());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Invalid role for passenger wallet"));
         }
 
         try {
             Map<String, Object> walletDetails = walletService.getPassengerWalletBalanceForDash(email);
             UserWalletBalanceDto responseDto = new UserWalletBalanceDto(
                     (String) walletDetails.get("walletNumber"),
-                    (Double) walletDetails.get("balance"),
+                    (Money) walletDetails.get("balance"),
                     (String) walletDetails.get("name")
             );
 
@@ -237,8 +231,33 @@ public class WalletController {
 
     @GetMapping("/history")
     @PreAuthorize("hasRole('PASSENGER') or hasRole('BUS')")
-    public ResponseEntity<?> getTransactionHistory(@RequestParam String email) {
-        List<Transaction> history = walletService.getTransactionHistory(email);
-        return ResponseEntity.ok(history);
+    public ResponseEntity<?> getTransactionHistory(
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status) {
+        if (principal == null) {
+            logger.warn("Authenticated principal missing");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Authorization header with Bearer token is required"));
+        }
+
+        try {
+            Transaction.TransactionType typeFilter = type != null
+                    ? Transaction.TransactionType.valueOf(type.toUpperCase()) : null;
+            Transaction.TransactionStatus statusFilter = status != null
+                    ? Transaction.TransactionStatus.valueOf(status.toUpperCase()) : null;
+            WalletHistoryPageDto history = walletService.getWalletHistory(principal.getEmail(), cursor, limit,
+                    typeFilter, statusFilter);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Wallet history retrieved",
+                    "data", history));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid wallet history request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message",
+                    "Invalid cursor, type or status"));
+        }
     }
 }
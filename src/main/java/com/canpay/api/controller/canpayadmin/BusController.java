@@ -10,11 +10,14 @@ import com.canpay.api.entity.Bus;
 import com.canpay.api.service.dashboard.DBusService;
 import com.canpay.api.service.dashboard.DBusService.BusStatsDto;
 import com.canpay.api.service.dashboard.DWalletService;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -95,6 +98,18 @@ public class BusController {
                 .buildWrapped();
     }
 
+    /**
+     * Export all buses as CSV or NDJSON, streamed row by row.
+     */
+    @GetMapping("/buses/export")
+    public ResponseEntity<StreamingResponseBody> exportBuses(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return ExportWriter.response("buses", exportFormat, gzip,
+                out -> busService.exportBuses(exportFormat, gzip, out));
+    }
+
     /**
      * Update bus.
      */
@@ -0,0 +1,73 @@
+package com.canpay.api.controller.canpayadmin;
+
+import com.canpay.api.dto.dashboard.wallet.WalletLedgerCheckDto;
+import com.canpay.api.entity.ResponseEntityBuilder;
+import com.canpay.api.service.dashboard.DWalletService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST controller for verifying the double-entry ledger in the CanPay admin
+ * dashboard.
+ */
+@RestController
+@RequestMapping("/api/v1/canpay-admin")
+public class LedgerController {
+
+    private final DWalletService walletService;
+
+    /**
+     * Constructor for LedgerController.
+     *
+     * @param walletService the service handling wallet operations
+     */
+    @Autowired
+    public LedgerController(DWalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    /**
+     * Compares a wallet's balance with the sum of its ledger entries.
+     *
+     * @param walletId the UUID of the wallet
+     * @return response entity with the comparison
+     */
+    @GetMapping("/ledger/wallets/{walletId}")
+    public ResponseEntity<?> checkWallet(@PathVariable UUID walletId) {
+        WalletLedgerCheckDto check = walletService.checkLedger(walletId);
+        return new ResponseEntityBuilder.Builder<WalletLedgerCheckDto>()
+                .resultMessage(check.isConsistent() ? "Wallet matches its ledger" : "Wallet differs from its ledger")
+                .httpStatus(HttpStatus.OK)
+                .body(check)
+                .buildWrapped();
+    }
+
+    /**
+     * Lists transactions whose ledger entries do not sum to zero.
+     *
+     * @param limit maximum number of transactions to return
+     * @return response entity with the transaction ids
+     */
+    @GetMapping("/ledger/unbalanced")
+    public ResponseEntity<?> getUnbalancedTransactions(@RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new IllegalArgumentException("limit must be between 1 and 1000");
+        }
+        List<UUID> transactionIds = walletService.findUnbalancedTransactions(limit);
+        return new ResponseEntityBuilder.Builder<Map<String, Object>>()
+                .resultMessage("Unbalanced transactions retrieved successfully")
+                .httpStatus(HttpStatus.OK)
+                .body(Map.of("count", transactionIds.size(), "transactionIds", transactionIds))
+                .buildWrapped();
+    }
+}
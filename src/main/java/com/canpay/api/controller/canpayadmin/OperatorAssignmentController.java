@@ -8,11 +8,14 @@ import com.canpay.api.entity.ResponseEntityBuilder;
 import com.canpay.api.entity.OperatorAssignment.AssignmentStatus;
 import com.canpay.api.service.dashboard.DOperatorAssignmentService;
 import com.canpay.api.service.dashboard.DOperatorAssignmentService.AssignmentStatsDto;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -86,6 +89,18 @@ public class OperatorAssignmentController {
                 .buildWrapped();
     }
 
+    /**
+     * Export all assignments as CSV or NDJSON, streamed row by row.
+     */
+    @GetMapping("/operator-assignments/export")
+    public ResponseEntity<StreamingResponseBody> exportAssignments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return ExportWriter.response("operator-assignments", exportFormat, gzip,
+                out -> operatorAssignmentService.exportAssignments(exportFormat, gzip, out));
+    }
+
     /**
      * Update assignment.
      */
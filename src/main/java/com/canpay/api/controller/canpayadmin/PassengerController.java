@@ -15,6 +15,8 @@ import com.canpay.api.entity.Wallet.WalletType;
 import com.canpay.api.service.dashboard.DUserService;
 import com.canpay.api.service.dashboard.DWalletService;
 import com.canpay.api.service.dashboard.DBankAccountService;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -23,9 +25,11 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import java.util.UUID;
 import java.util.List;
@@ -131,6 +135,22 @@ public class PassengerController {
                 .buildWrapped();
     }
 
+    /**
+     * Exports all passengers with their wallet, streamed row by row.
+     *
+     * @param format csv or ndjson
+     * @param gzip whether to gzip the response
+     * @return the streamed response
+     */
+    @GetMapping("/passengers/export")
+    public ResponseEntity<StreamingResponseBody> exportPassengers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return ExportWriter.response("passengers", exportFormat, gzip,
+                out -> userService.exportUsers(UserRole.PASSENGER, WalletType.PASSENGER, exportFormat, gzip, out));
+    }
+
     /**
      * Retrieves a passenger by their ID.
      * 
@@ -0,0 +1,76 @@
+package com.canpay.api.controller.canpayadmin;
+
+import com.canpay.api.dto.dashboard.transaction.AdminTransactionPageDto;
+import com.canpay.api.dto.dashboard.transaction.TransactionSearchDto;
+import com.canpay.api.entity.ResponseEntityBuilder;
+import com.canpay.api.service.dashboard.DTransactionService;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for exploring transactions in the CanPay admin dashboard.
+ */
+@RestController
+@RequestMapping("/api/v1/canpay-admin")
+public class TransactionExplorerController {
+
+    private final DTransactionService transactionService;
+
+    /**
+     * Constructor for TransactionExplorerController.
+     *
+     * @param transactionService the service handling transaction searches
+     */
+    @Autowired
+    public TransactionExplorerController(DTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Searches transactions, newest first, one page at a time.
+     *
+     * @param search the optional filters
+     * @param cursor the next cursor of the previous page, if any
+     * @param limit maximum number of transactions to return
+     * @return response entity with the page and the next cursor
+     */
+    @GetMapping("/transactions")
+    public ResponseEntity<?> searchTransactions(@ModelAttribute TransactionSearchDto search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        AdminTransactionPageDto page = transactionService.searchTransactions(search, cursor, limit);
+        return new ResponseEntityBuilder.Builder<AdminTransactionPageDto>()
+                .resultMessage("Transactions retrieved successfully")
+                .httpStatus(HttpStatus.OK)
+                .body(page)
+                .buildWrapped();
+    }
+
+    /**
+     * Streams every matching transaction, newest first, for ranges too large
+     * to page through.
+     *
+     * @param search the optional filters
+     * @param format csv or ndjson
+     * @param gzip whether to gzip the response
+     * @return the streamed response
+     */
+    @GetMapping("/transactions/stream")
+    public ResponseEntity<StreamingResponseBody> streamTransactions(@ModelAttribute TransactionSearchDto search,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        transactionService.validateSearch(search);
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        return ExportWriter.response("transactions", exportFormat, gzip,
+                out -> transactionService.streamTransactions(search, exportFormat, gzip, out));
+    }
+}
@@ -0,0 +1,23 @@
+package com.canpay.api.dto;
+
+/**
+ * A short-lived access token with the refresh token to use for the next one.
+ */
+public class AuthTokensDto {
+
+    private final String token;
+    private final String refreshToken;
+
+    public AuthTokensDto(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
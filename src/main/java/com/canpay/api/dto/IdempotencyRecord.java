@@ -0,0 +1,78 @@
+package com.canpay.api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an idempotency key: the hash of the request that reserved it and,
+ * once the request has finished, the response to replay. While in progress
+ * the key is held by the owner token of the reserving request and leased
+ * until lockedUntil; a reservation whose lease has expired was abandoned and
+ * may be taken over.
+ */
+public class IdempotencyRecord {
+
+    private final String requestHash;
+    private final Integer statusCode;
+    private final String responseBody;
+    private final String owner;
+    private final LocalDateTime lockedUntil;
+
+    public IdempotencyRecord(String requestHash, Integer statusCode, String responseBody) {
+        this(requestHash, statusCode, responseBody, null, null);
+    }
+
+    public IdempotencyRecord(String requestHash, Integer statusCode, String responseBody, String owner,
+            LocalDateTime lockedUntil) {
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.owner = owner;
+        this.lockedUntil = lockedUntil;
+    }
+
+    public static IdempotencyRecord inProgress(String requestHash) {
+        return new IdempotencyRecord(requestHash, null, null);
+    }
+
+    public static IdempotencyRecord inProgress(String requestHash, String owner, LocalDateTime lockedUntil) {
+        return new IdempotencyRecord(requestHash, null, null, owner, lockedUntil);
+    }
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+
+    /**
+     * Whether the key is still in progress and reserved by the given owner.
+     */
+    public boolean isHeldBy(String owner) {
+        return !isCompleted() && this.owner != null && this.owner.equals(owner);
+    }
+
+    /**
+     * Whether the key is still in progress but its lease ran out.
+     */
+    public boolean isLeaseExpired(LocalDateTime now) {
+        return !isCompleted() && lockedUntil != null && lockedUntil.isBefore(now);
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+}
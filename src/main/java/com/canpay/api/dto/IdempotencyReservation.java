@@ -0,0 +1,36 @@
+package com.canpay.api.dto;
+
+/**
+ * Outcome of reserving an idempotency key: either the owner token of the new
+ * reservation, or the record already held for the key.
+ */
+public class IdempotencyReservation {
+
+    private final String owner;
+    private final IdempotencyRecord existing;
+
+    private IdempotencyReservation(String owner, IdempotencyRecord existing) {
+        this.owner = owner;
+        this.existing = existing;
+    }
+
+    public static IdempotencyReservation granted(String owner) {
+        return new IdempotencyReservation(owner, null);
+    }
+
+    public static IdempotencyReservation held(IdempotencyRecord existing) {
+        return new IdempotencyReservation(null, existing);
+    }
+
+    public boolean isGranted() {
+        return owner != null;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public IdempotencyRecord getExisting() {
+        return existing;
+    }
+}
@@ -0,0 +1,25 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.entity.User;
+
+/**
+ * The user an OTP login resolved to, and whether the role was registered by it.
+ */
+public class LoginResultDto {
+
+    private final User user;
+    private final boolean newUser;
+
+    public LoginResultDto(User user, boolean newUser) {
+        this.user = user;
+        this.newUser = newUser;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public boolean isNewUser() {
+        return newUser;
+    }
+}
@@ -0,0 +1,86 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.entity.Bus.BusStatus;
+import com.canpay.api.entity.OperatorAssignment.AssignmentStatus;
+import com.canpay.api.entity.User.UserRole;
+
+import java.util.UUID;
+
+/**
+ * Resolved context of a tap for one bus and operator: everything a payment
+ * needs besides the passenger, read in a single query.
+ */
+public class PaymentContextDto {
+
+    private final UUID busId;
+    private final String busNumber;
+    private final BusStatus busStatus;
+    private final UUID operatorId;
+    private final String operatorName;
+    private final UserRole operatorRole;
+    private final UUID ownerId;
+    private final String ownerEmail;
+    private final UserRole ownerRole;
+    private final UUID ownerWalletId;
+    private final AssignmentStatus assignmentStatus;
+
+    public PaymentContextDto(UUID busId, String busNumber, BusStatus busStatus, UUID operatorId,
+            String operatorName, UserRole operatorRole, UUID ownerId, String ownerEmail, UserRole ownerRole,
+            UUID ownerWalletId, AssignmentStatus assignmentStatus) {
+        this.busId = busId;
+        this.busNumber = busNumber;
+        this.busStatus = busStatus;
+        this.operatorId = operatorId;
+        this.operatorName = operatorName;
+        this.operatorRole = operatorRole;
+        this.ownerId = ownerId;
+        this.ownerEmail = ownerEmail;
+        this.ownerRole = ownerRole;
+        this.ownerWalletId = ownerWalletId;
+        this.assignmentStatus = assignmentStatus;
+    }
+
+    public UUID getBusId() {
+        return busId;
+    }
+
+    public String getBusNumber() {
+        return busNumber;
+    }
+
+    public BusStatus getBusStatus() {
+        return busStatus;
+    }
+
+    public UUID getOperatorId() {
+        return operatorId;
+    }
+
+    public String getOperatorName() {
+        return operatorName;
+    }
+
+    public UserRole getOperatorRole() {
+        return operatorRole;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public String getOwnerEmail() {
+        return ownerEmail;
+    }
+
+    public UserRole getOwnerRole() {
+        return ownerRole;
+    }
+
+    public UUID getOwnerWalletId() {
+        return ownerWalletId;
+    }
+
+    public AssignmentStatus getAssignmentStatus() {
+        return assignmentStatus;
+    }
+}
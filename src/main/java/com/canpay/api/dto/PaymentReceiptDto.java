@@ -0,0 +1,52 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.util.Money;
+
+import java.util.UUID;
+
+/**
+ * Result of an approved payment, as returned to the passenger.
+ */
+public class PaymentReceiptDto {
+
+    private final UUID transactionId;
+    private final Money amount;
+    private final String busNumber;
+    private final String operatorName;
+    private final String ownerEmail;
+    private final Money balance;
+
+    public PaymentReceiptDto(UUID transactionId, Money amount, String busNumber, String operatorName,
+            String ownerEmail, Money balance) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.busNumber = busNumber;
+        this.operatorName = operatorName;
+        this.ownerEmail = ownerEmail;
+        this.balance = balance;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getBusNumber() {
+        return busNumber;
+    }
+
+    public String getOperatorName() {
+        return operatorName;
+    }
+
+    public String getOwnerEmail() {
+        return ownerEmail;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+}
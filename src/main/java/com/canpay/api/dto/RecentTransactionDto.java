@@ -0,0 +1,73 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.entity.Transaction.TransactionStatus;
+import com.canpay.api.entity.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A recent transaction of a passenger with only the columns the app shows.
+ */
+public class RecentTransactionDto {
+
+    private final UUID id;
+    private final BigDecimal amount;
+    private final LocalDateTime happenedAt;
+    private final TransactionType type;
+    private final TransactionStatus status;
+    private final String note;
+    private final String busNumber;
+    private final String operatorName;
+    private final String ownerEmail;
+
+    public RecentTransactionDto(UUID id, BigDecimal amount, LocalDateTime happenedAt, TransactionType type,
+            TransactionStatus status, String note, String busNumber, String operatorName, String ownerEmail) {
+        this.id = id;
+        this.amount = amount;
+        this.happenedAt = happenedAt;
+        this.type = type;
+        this.status = status;
+        this.note = note;
+        this.busNumber = busNumber;
+        this.operatorName = operatorName;
+        this.ownerEmail = ownerEmail;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getHappenedAt() {
+        return happenedAt;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public String getBusNumber() {
+        return busNumber;
+    }
+
+    public String getOperatorName() {
+        return operatorName;
+    }
+
+    public String getOwnerEmail() {
+        return ownerEmail;
+    }
+}
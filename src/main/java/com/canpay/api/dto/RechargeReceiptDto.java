@@ -0,0 +1,39 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.util.Money;
+
+import java.util.UUID;
+
+/**
+ * Result of a wallet recharge, with the balance right after it.
+ */
+public class RechargeReceiptDto {
+
+    private final UUID transactionId;
+    private final String walletNumber;
+    private final Money amount;
+    private final Money balance;
+
+    public RechargeReceiptDto(UUID transactionId, String walletNumber, Money amount, Money balance) {
+        this.transactionId = transactionId;
+        this.walletNumber = walletNumber;
+        this.amount = amount;
+        this.balance = balance;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public String getWalletNumber() {
+        return walletNumber;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,54 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.util.Money;
+
+import java.util.List;
+
+/**
+ * Changes since a client's last sync. Transactions are newest first; when
+ * transactionsReset is true they are the newest page rather than a delta and
+ * replace the client's list. Bank accounts are null when unchanged.
+ */
+public class SyncResultDto {
+
+    private final String cursor;
+    private final boolean changed;
+    private final Money balance;
+    private final List<RecentTransactionDto> transactions;
+    private final boolean transactionsReset;
+    private final List<BankAccountDto> bankAccounts;
+
+    public SyncResultDto(String cursor, boolean changed, Money balance, List<RecentTransactionDto> transactions,
+            boolean transactionsReset, List<BankAccountDto> bankAccounts) {
+        this.cursor = cursor;
+        this.changed = changed;
+        this.balance = balance;
+        this.transactions = transactions;
+        this.transactionsReset = transactionsReset;
+        this.bankAccounts = bankAccounts;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    public List<RecentTransactionDto> getTransactions() {
+        return transactions;
+    }
+
+    public boolean isTransactionsReset() {
+        return transactionsReset;
+    }
+
+    public List<BankAccountDto> getBankAccounts() {
+        return bankAccounts;
+    }
+}
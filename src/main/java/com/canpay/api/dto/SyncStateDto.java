@@ -0,0 +1,47 @@
+package com.canpay.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Change markers of a passenger's wallet, transactions and bank accounts,
+ * read in one query to decide what a sync has to send.
+ */
+public class SyncStateDto {
+
+    private final UUID walletId;
+    private final BigDecimal balance;
+    private final long syncSeq;
+    private final long bankAccountCount;
+    private final LocalDateTime bankAccountsUpdatedAt;
+
+    public SyncStateDto(UUID walletId, BigDecimal balance, Long syncSeq, Long bankAccountCount,
+            LocalDateTime bankAccountsUpdatedAt) {
+        this.walletId = walletId;
+        this.balance = balance;
+        this.syncSeq = syncSeq != null ? syncSeq : 0;
+        this.bankAccountCount = bankAccountCount != null ? bankAccountCount : 0;
+        this.bankAccountsUpdatedAt = bankAccountsUpdatedAt;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public long getSyncSeq() {
+        return syncSeq;
+    }
+
+    public long getBankAccountCount() {
+        return bankAccountCount;
+    }
+
+    public LocalDateTime getBankAccountsUpdatedAt() {
+        return bankAccountsUpdatedAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.canpay.api.dto;
+
+/**
+ * One buffered tap uploaded by a validator device.
+ * Values are kept as strings so each tap can be validated and rejected on
+ * its own without failing the whole batch.
+ */
+public class TapRequestDto {
+
+    private String tapId;
+    private String passengerEmail;
+    private String busId;
+    private String operatorId;
+    private String amount;
+
+    public TapRequestDto() {
+        // no-arg constructor for deserialization
+    }
+
+    public String getTapId() {
+        return tapId;
+    }
+
+    public void setTapId(String tapId) {
+        this.tapId = tapId;
+    }
+
+    public String getPassengerEmail() {
+        return passengerEmail;
+    }
+
+    public void setPassengerEmail(String passengerEmail) {
+        this.passengerEmail = passengerEmail;
+    }
+
+    public String getBusId() {
+        return busId;
+    }
+
+    public void setBusId(String busId) {
+        this.busId = busId;
+    }
+
+    public String getOperatorId() {
+        return operatorId;
+    }
+
+    public void setOperatorId(String operatorId) {
+        this.operatorId = operatorId;
+    }
+
+    public String getAmount() {
+        return amount;
+    }
+
+    public void setAmount(String amount) {
+        this.amount = amount;
+    }
+}
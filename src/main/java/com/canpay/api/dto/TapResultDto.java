@@ -0,0 +1,62 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.util.Money;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one tap of a batch upload.
+ */
+public class TapResultDto {
+
+    private final String tapId;
+    private final TapStatus status;
+    private final String message;
+    private final UUID transactionId;
+    private final Money balance;
+
+    public TapResultDto(String tapId, TapStatus status, String message, UUID transactionId, Money balance) {
+        this.tapId = tapId;
+        this.status = status;
+        this.message = message;
+        this.transactionId = transactionId;
+        this.balance = balance;
+    }
+
+    public static TapResultDto approved(String tapId, UUID transactionId, Money balance) {
+        return new TapResultDto(tapId, TapStatus.APPROVED, "Payment processed successfully", transactionId, balance);
+    }
+
+    public static TapResultDto rejected(String tapId, String message) {
+        return new TapResultDto(tapId, TapStatus.REJECTED, message, null, null);
+    }
+
+    public static TapResultDto duplicate(String tapId, String message) {
+        return new TapResultDto(tapId, TapStatus.DUPLICATE, message, null, null);
+    }
+
+    public String getTapId() {
+        return tapId;
+    }
+
+    public TapStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    // Enums
+    public enum TapStatus {
+        APPROVED, REJECTED, DUPLICATE
+    }
+}
@@ -1,27 +1,28 @@
 package com.canpay.api.dto;
 
+import com.canpay.api.util.Money;
 
 public class UserWalletBalanceDto {
 
     private String email;
-    private double balance;
+    private Money balance;
     private Long accountNumber;
     private String accountName;
     private String walletNumber;
 
-    public UserWalletBalanceDto(String email ,double walletBalance) {
+    public UserWalletBalanceDto(String email ,Money walletBalance) {
         this.email = email;
        this.balance = walletBalance;
 
     }
 
-    public UserWalletBalanceDto(double balance, Long accountNumber, String accountName) {
+    public UserWalletBalanceDto(Money balance, Long accountNumber, String accountName) {
         this.balance = balance;
         this.accountNumber = accountNumber;
         this.accountName = accountName;
     }
 
-    public UserWalletBalanceDto(String walletNumber, Double balance, String name) {
+    public UserWalletBalanceDto(String walletNumber, Money balance, String name) {
         this.walletNumber = walletNumber;
         this.balance = balance;
         this.accountName = name;
@@ -36,11 +37,11 @@ public class UserWalletBalanceDto {
         this.email = email;
     }
 
-    public double getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(double balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
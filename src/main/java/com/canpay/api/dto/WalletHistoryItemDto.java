@@ -0,0 +1,64 @@
+package com.canpay.api.dto;
+
+import com.canpay.api.entity.Transaction.TransactionStatus;
+import com.canpay.api.entity.Transaction.TransactionType;
+import com.canpay.api.util.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One movement in a wallet's history, read as a projection without loading
+ * the transaction's associations.
+ */
+public class WalletHistoryItemDto {
+
+    private final UUID id;
+    private final LocalDateTime happenedAt;
+    private final TransactionType type;
+    private final TransactionStatus status;
+    private final Money amount;
+    private final String note;
+    private final boolean outgoing;
+
+    public WalletHistoryItemDto(UUID id, LocalDateTime happenedAt, TransactionType type, TransactionStatus status,
+            BigDecimal amount, String note, boolean outgoing) {
+        this.id = id;
+        this.happenedAt = happenedAt;
+        this.type = type;
+        this.status = status;
+        this.amount = Money.of(amount);
+        this.note = note;
+        this.outgoing = outgoing;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDateTime getHappenedAt() {
+        return happenedAt;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    /** Whether the amount left the wallet rather than arrived in it. */
+    public boolean isOutgoing() {
+        return outgoing;
+    }
+}
@@ -0,0 +1,26 @@
+package com.canpay.api.dto;
+
+import java.util.List;
+
+/**
+ * A page of wallet history, newest first. The next cursor is null on the
+ * last page.
+ */
+public class WalletHistoryPageDto {
+
+    private final List<WalletHistoryItemDto> items;
+    private final String nextCursor;
+
+    public WalletHistoryPageDto(List<WalletHistoryItemDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<WalletHistoryItemDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.canpay.api.dto;
+
+import java.util.UUID;
+
+/**
+ * Identifiers of a wallet and the user holding it, for writes that only
+ * need references rather than loaded entities.
+ */
+public class WalletRefDto {
+
+    private final UUID userId;
+    private final UUID walletId;
+    private final String walletNumber;
+    private final String email;
+
+    public WalletRefDto(UUID userId, UUID walletId, String walletNumber, String email) {
+        this.userId = userId;
+        this.walletId = walletId;
+        this.walletNumber = walletNumber;
+        this.email = email;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public String getWalletNumber() {
+        return walletNumber;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,105 @@
+package com.canpay.api.dto.dashboard.transaction;
+
+import com.canpay.api.entity.Transaction.TransactionStatus;
+import com.canpay.api.entity.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transaction row for the admin explorer, with related users, bus and
+ * wallets as IDs rather than entities.
+ */
+public class AdminTransactionDto {
+
+    private final UUID id;
+    private final LocalDateTime happenedAt;
+    private final BigDecimal amount;
+    private final TransactionType type;
+    private final TransactionStatus status;
+    private final String note;
+    private final UUID passengerId;
+    private final String passengerEmail;
+    private final UUID ownerId;
+    private final UUID operatorId;
+    private final UUID busId;
+    private final String busNumber;
+    private final UUID fromWalletId;
+    private final UUID toWalletId;
+
+    public AdminTransactionDto(UUID id, LocalDateTime happenedAt, BigDecimal amount, TransactionType type,
+            TransactionStatus status, String note, UUID passengerId, String passengerEmail, UUID ownerId,
+            UUID operatorId, UUID busId, String busNumber, UUID fromWalletId, UUID toWalletId) {
+        this.id = id;
+        this.happenedAt = happenedAt;
+        this.amount = amount;
+        this.type = type;
+        this.status = status;
+        this.note = note;
+        this.passengerId = passengerId;
+        this.passengerEmail = passengerEmail;
+        this.ownerId = ownerId;
+        this.operatorId = operatorId;
+        this.busId = busId;
+        this.busNumber = busNumber;
+        this.fromWalletId = fromWalletId;
+        this.toWalletId = toWalletId;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDateTime getHappenedAt() {
+        return happenedAt;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public UUID getPassengerId() {
+        return passengerId;
+    }
+
+    public String getPassengerEmail() {
+        return passengerEmail;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public UUID getOperatorId() {
+        return operatorId;
+    }
+
+    public UUID getBusId() {
+        return busId;
+    }
+
+    public String getBusNumber() {
+        return busNumber;
+    }
+
+    public UUID getFromWalletId() {
+        return fromWalletId;
+    }
+
+    public UUID getToWalletId() {
+        return toWalletId;
+    }
+}
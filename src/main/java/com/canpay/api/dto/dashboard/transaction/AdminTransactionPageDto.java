@@ -0,0 +1,26 @@
+package com.canpay.api.dto.dashboard.transaction;
+
+import java.util.List;
+
+/**
+ * A page of admin transaction search results, newest first. The next cursor
+ * is null on the last page.
+ */
+public class AdminTransactionPageDto {
+
+    private final List<AdminTransactionDto> items;
+    private final String nextCursor;
+
+    public AdminTransactionPageDto(List<AdminTransactionDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AdminTransactionDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
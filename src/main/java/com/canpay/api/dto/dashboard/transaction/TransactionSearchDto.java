@@ -0,0 +1,120 @@
+package com.canpay.api.dto.dashboard.transaction;
+
+import com.canpay.api.entity.Transaction.TransactionStatus;
+import com.canpay.api.entity.Transaction.TransactionType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for admin transaction filters. Every filter is optional and filters
+ * combine with AND; a wallet matches either side of a transaction. The time
+ * range includes from and excludes to.
+ */
+public class TransactionSearchDto {
+
+    private UUID passengerId;
+    private UUID ownerId;
+    private UUID operatorId;
+    private UUID busId;
+    private UUID walletId;
+    private List<TransactionType> types;
+    private List<TransactionStatus> statuses;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    public UUID getPassengerId() {
+        return passengerId;
+    }
+
+    public void setPassengerId(UUID passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public UUID getOperatorId() {
+        return operatorId;
+    }
+
+    public void setOperatorId(UUID operatorId) {
+        this.operatorId = operatorId;
+    }
+
+    public UUID getBusId() {
+        return busId;
+    }
+
+    public void setBusId(UUID busId) {
+        this.busId = busId;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(UUID walletId) {
+        this.walletId = walletId;
+    }
+
+    public List<TransactionType> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<TransactionType> types) {
+        this.types = types;
+    }
+
+    public List<TransactionStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<TransactionStatus> statuses) {
+        this.statuses = statuses;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
@@ -20,7 +20,7 @@ public class UserListWalletDto {
     public UserListWalletDto(Wallet entity) {
         if (entity != null) {
             this.number = entity.getWalletNumber();
-            this.balance = entity.getBalance();
+            this.balance = entity.getAvailableBalance();
         }
     }
 
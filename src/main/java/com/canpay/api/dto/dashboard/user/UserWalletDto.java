@@ -27,7 +27,7 @@ public class UserWalletDto {
         if (entity != null) {
             this.id = entity.getId();
             this.number = entity.getWalletNumber();
-            this.balance = entity.getBalance();
+            this.balance = entity.getAvailableBalance();
             this.createdAt = entity.getCreatedAt();
             this.updatedAt = entity.getUpdatedAt();
         }
@@ -0,0 +1,51 @@
+package com.canpay.api.dto.dashboard.wallet;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Comparison of a wallet's materialized balance with its opening balance
+ * plus the sum of its ledger entries.
+ */
+public class WalletLedgerCheckDto {
+    private final UUID walletId;
+    private final BigDecimal balance;
+    private final BigDecimal openingBalance;
+    private final BigDecimal ledgerBalance;
+    private final BigDecimal difference;
+    private final boolean consistent;
+
+    public WalletLedgerCheckDto(UUID walletId, BigDecimal balance, BigDecimal openingBalance,
+            BigDecimal ledgerBalance) {
+        this.walletId = walletId;
+        this.balance = balance;
+        this.openingBalance = openingBalance;
+        this.ledgerBalance = ledgerBalance;
+        this.difference = balance.subtract(openingBalance).subtract(ledgerBalance);
+        this.consistent = difference.signum() == 0;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public BigDecimal getLedgerBalance() {
+        return ledgerBalance;
+    }
+
+    public BigDecimal getDifference() {
+        return difference;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+}
@@ -0,0 +1,121 @@
+package com.canpay.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents an idempotency key shared by all nodes.
+ * The row is inserted when a request reserves the key and holds the recorded
+ * response once the request has committed.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyKey extends BaseEntity {
+    /** SHA-256 of the client key and its scope. */
+    @Column(name = "idem_key", nullable = false, unique = true, length = 64)
+    @NotNull
+    private String idemKey;
+
+    /** SHA-256 of the request that reserved the key. */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    @NotNull
+    private String requestHash;
+
+    /** HTTP status of the recorded response, null while in progress. */
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    /** JSON body of the recorded response. */
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    /** Token of the request that holds the key. */
+    @Column(name = "owner_token", length = 36)
+    private String owner;
+
+    /** Until when the reserving request holds the key, null once completed. */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    /** When the key may be purged. */
+    @Column(name = "expires_at", nullable = false)
+    @NotNull
+    private LocalDateTime expiresAt;
+
+    // Business Constructor
+    public IdempotencyKey(String idemKey, String requestHash, String owner, LocalDateTime lockedUntil,
+            LocalDateTime expiresAt) {
+        this.idemKey = idemKey;
+        this.requestHash = requestHash;
+        this.owner = owner;
+        this.lockedUntil = lockedUntil;
+        this.expiresAt = expiresAt;
+    }
+
+    // Explicit Getters and Setters
+    public String getIdemKey() {
+        return idemKey;
+    }
+
+    public void setIdemKey(String idemKey) {
+        this.idemKey = idemKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.canpay.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Records how far a consumer of the ledger journal has got.
+ * The projection of the journal into wallets and transactions advances its
+ * checkpoint in the same transaction as the rows it writes.
+ */
+@Entity
+@Table(name = "ledger_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerCheckpoint extends BaseEntity {
+    /** Name of the journal consumer. */
+    @Column(nullable = false, unique = true, length = 50)
+    @NotNull
+    private String name;
+
+    /** Sequence number of the last record processed. */
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    // Business Constructor
+    public LedgerCheckpoint(String name) {
+        this.name = name;
+    }
+
+    // Explicit Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
@@ -0,0 +1,91 @@
+package com.canpay.api.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * One side of a double-entry posting for a transaction.
+ * Every transaction writes entries whose amounts sum to zero: a negative
+ * entry on the wallet that pays and a positive entry on the wallet that
+ * receives. Money entering or leaving the platform (recharges, withdrawals)
+ * is posted against the external account, which has no wallet. Entries are
+ * never updated; the running sum of a wallet's entries is its balance.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_wallet", columnList = "wallet_id, created_at"),
+        @Index(name = "idx_ledger_entries_transaction", columnList = "transaction_id") })
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerEntry extends BaseEntity {
+    /** Transaction this entry posts. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaction_id", nullable = false, updatable = false)
+    @NotNull
+    private Transaction transaction;
+
+    /** Wallet the entry is posted to, or null for the external account. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", updatable = false)
+    private Wallet wallet;
+
+    /** Signed amount: negative debits the wallet, positive credits it. */
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @NotNull
+    private BigDecimal amount;
+
+    /** Type of the posted transaction, kept here for history reads. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    @NotNull
+    private Transaction.TransactionType type;
+
+    // Business Constructor
+    public LedgerEntry(Transaction transaction, Wallet wallet, BigDecimal amount) {
+        this.transaction = transaction;
+        this.wallet = wallet;
+        this.amount = amount;
+        this.type = transaction.getType();
+    }
+
+    // Explicit Getters and Setters
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public void setTransaction(Transaction transaction) {
+        this.transaction = transaction;
+    }
+
+    public Wallet getWallet() {
+        return wallet;
+    }
+
+    public void setWallet(Wallet wallet) {
+        this.wallet = wallet;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Transaction.TransactionType getType() {
+        return type;
+    }
+
+    public void setType(Transaction.TransactionType type) {
+        this.type = type;
+    }
+}
@@ -0,0 +1,80 @@
+package com.canpay.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents the current one-time password of an email, shared by all nodes.
+ */
+@Entity
+@Table(name = "otp_codes")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OtpCode extends BaseEntity {
+    /** Email the code was sent to. */
+    @Column(nullable = false, unique = true)
+    @NotNull
+    private String email;
+
+    /** The code itself. */
+    @Column(nullable = false, length = 10)
+    @NotNull
+    private String code;
+
+    /** Wrong codes tried so far. */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** When the code stops being accepted. */
+    @Column(name = "expires_at", nullable = false)
+    @NotNull
+    private LocalDateTime expiresAt;
+
+    // Business Constructor
+    public OtpCode(String email, String code, LocalDateTime expiresAt) {
+        this.email = email;
+        this.code = code;
+        this.expiresAt = expiresAt;
+    }
+
+    // Explicit Getters and Setters
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,98 @@
+package com.canpay.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A family of rotating refresh tokens issued at one login.
+ * The row id is part of the token and only a hash of the current secret is
+ * stored. Presenting any other secret for the family is treated as reuse of
+ * a stolen token and revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = @Index(name = "idx_refresh_tokens_user", columnList = "user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshToken extends BaseEntity {
+    /** ID of the user the family was issued to. */
+    @Column(name = "user_id", nullable = false)
+    @NotNull
+    private UUID userId;
+
+    /** SHA-256 of the current secret, hex encoded. */
+    @Column(name = "token_hash", nullable = false, length = 64)
+    @NotNull
+    private String tokenHash;
+
+    /** When the current secret was issued. */
+    @Column(name = "rotated_at", nullable = false)
+    @NotNull
+    private LocalDateTime rotatedAt;
+
+    /** When the family stops being accepted, regardless of rotation. */
+    @Column(name = "expires_at", nullable = false)
+    @NotNull
+    private LocalDateTime expiresAt;
+
+    /** Whether the family was revoked by logout, reuse or an admin action. */
+    @Column(nullable = false)
+    private boolean revoked;
+
+    // Business Constructor
+    public RefreshToken(UUID userId, String tokenHash, LocalDateTime rotatedAt, LocalDateTime expiresAt) {
+        this.userId = userId;
+        this.tokenHash = tokenHash;
+        this.rotatedAt = rotatedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public LocalDateTime getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public void setRotatedAt(LocalDateTime rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+}
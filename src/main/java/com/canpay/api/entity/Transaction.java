@@ -11,12 +11,20 @@ import org.springframework.data.annotation.CreatedDate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Represents a transaction entity in the system.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_passenger_history", columnList = "passenger_id, happened_at, id"),
+        @Index(name = "idx_transactions_happened_at", columnList = "happened_at, id"),
+        @Index(name = "idx_transactions_owner_history", columnList = "owner_id, happened_at, id"),
+        @Index(name = "idx_transactions_bus_history", columnList = "bus_id, happened_at, id"),
+        @Index(name = "idx_transactions_passenger_sync", columnList = "passenger_id, sync_seq")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_transactions_operator_tap",
+        columnNames = { "operator_id", "client_tap_id" }))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -90,6 +98,19 @@ public class Transaction extends BaseEntity {
     @JoinColumn(name = "to_wallet_id")
     private Wallet toWallet;
 
+    /** Tap ID assigned by the validator device, for taps uploaded in batches; unique per operator. */
+    @Column(name = "client_tap_id", length = 64)
+    @Size(max = 64)
+    private String clientTapId;
+
+    /** Reference of the ledger engine record this transaction was projected from. */
+    @Column(name = "ledger_ref", unique = true)
+    private UUID ledgerRef;
+
+    /** Position in the passenger's sync sequence, assigned in commit order. */
+    @Column(name = "sync_seq")
+    private Long syncSeq;
+
     // Business Constructor
     public Transaction(BigDecimal amount, TransactionType type, User passenger) {
         this.amount = amount;
@@ -211,6 +232,30 @@ public class Transaction extends BaseEntity {
         this.toWallet = toWallet;
     }
 
+    public String getClientTapId() {
+        return clientTapId;
+    }
+
+    public void setClientTapId(String clientTapId) {
+        this.clientTapId = clientTapId;
+    }
+
+    public UUID getLedgerRef() {
+        return ledgerRef;
+    }
+
+    public void setLedgerRef(UUID ledgerRef) {
+        this.ledgerRef = ledgerRef;
+    }
+
+    public Long getSyncSeq() {
+        return syncSeq;
+    }
+
+    public void setSyncSeq(Long syncSeq) {
+        this.syncSeq = syncSeq;
+    }
+
     // Enums
     public enum TransactionType {
         PAYMENT, RECHARGE, WITHDRAWAL, REFUND
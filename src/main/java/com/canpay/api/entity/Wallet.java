@@ -3,6 +3,7 @@ package com.canpay.api.entity;
 import java.math.BigDecimal;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -11,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,12 +20,15 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Represents a wallet entity in the system.
  */
 @Entity
 @Table(name = "wallets")
+// Balance and sync_seq are moved by guarded UPDATEs; never write back stale copies of them
+@DynamicUpdate
 @Getter
 @Setter
 public class Wallet extends BaseEntity {
@@ -58,6 +63,25 @@ public class Wallet extends BaseEntity {
     @JsonBackReference
     private Bus bus;
 
+    /**
+     * Balance the wallet held before ledger entries were posted for it.
+     * Null until the startup backfill has recorded it for a wallet that
+     * predates the ledger.
+     */
+    @Column(name = "ledger_opening_balance", precision = 19, scale = 2)
+    @JsonIgnore
+    private BigDecimal ledgerOpeningBalance = BigDecimal.ZERO;
+
+    /** Last sync sequence number handed to a transaction of the wallet's passenger. */
+    @Column(name = "sync_seq")
+    @JsonIgnore
+    private Long syncSeq;
+
+    /** Credit still held in striped credit slots, folded in on read. Not persisted. */
+    @Transient
+    @JsonIgnore
+    private BigDecimal stripedCredit = BigDecimal.ZERO;
+
 
     // Enums
     public enum WalletType {
@@ -92,6 +116,36 @@ public class Wallet extends BaseEntity {
         this.balance = balance;
     }
 
+    public BigDecimal getLedgerOpeningBalance() {
+        return ledgerOpeningBalance;
+    }
+
+    public void setLedgerOpeningBalance(BigDecimal ledgerOpeningBalance) {
+        this.ledgerOpeningBalance = ledgerOpeningBalance;
+    }
+
+    public Long getSyncSeq() {
+        return syncSeq;
+    }
+
+    public void setSyncSeq(Long syncSeq) {
+        this.syncSeq = syncSeq;
+    }
+
+    public BigDecimal getStripedCredit() {
+        return stripedCredit;
+    }
+
+    public void setStripedCredit(BigDecimal stripedCredit) {
+        this.stripedCredit = stripedCredit != null ? stripedCredit : BigDecimal.ZERO;
+    }
+
+    /** Balance including credit that has not been compacted into the wallet row yet. */
+    @JsonIgnore
+    public BigDecimal getAvailableBalance() {
+        return balance.add(stripedCredit);
+    }
+
     public String getWalletNumber() {
         return walletNumber;
     }
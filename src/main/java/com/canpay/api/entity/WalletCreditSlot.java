@@ -0,0 +1,70 @@
+package com.canpay.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Represents one credit stripe of a wallet.
+ * Credits to busy owner wallets land on one of several slot rows so that
+ * concurrent payments do not all queue on the wallet row. Slot balances are
+ * folded into the wallet balance on read and by a periodic compactor.
+ */
+@Entity
+@Table(name = "wallet_credit_slots", uniqueConstraints = @UniqueConstraint(columnNames = { "wallet_id", "slot" }))
+@Getter
+@Setter
+@NoArgsConstructor
+public class WalletCreditSlot extends BaseEntity {
+    /** ID of the wallet this slot belongs to. */
+    @Column(name = "wallet_id", nullable = false)
+    @NotNull
+    private UUID walletId;
+
+    /** Index of the slot within the wallet's stripes. */
+    @Column(nullable = false)
+    private int slot;
+
+    /** Credit accumulated in this slot and not yet folded into the wallet. */
+    @Column(nullable = false, precision = 19, scale = 2)
+    @NotNull
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    // Business Constructor
+    public WalletCreditSlot(UUID walletId, int slot) {
+        this.walletId = walletId;
+        this.slot = slot;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(UUID walletId) {
+        this.walletId = walletId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -1,8 +1,10 @@
 package com.canpay.api.jwt;
 
+import com.canpay.api.auth.ApplicationUserDetails;
 import com.canpay.api.entity.User;
 import com.canpay.api.service.implementation.ApplicationUserServiceImpl;
 import com.canpay.api.service.implementation.JwtService;
+import com.canpay.api.service.implementation.UserRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,13 +12,14 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -25,10 +28,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final ApplicationUserServiceImpl userService;
+    private final UserRevocationService userRevocationService;
 
-    public JwtAuthFilter(JwtService jwtService, ApplicationUserServiceImpl userService) {
+    public JwtAuthFilter(JwtService jwtService, ApplicationUserServiceImpl userService,
+            UserRevocationService userRevocationService) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.userRevocationService = userRevocationService;
     }
 
     @Override
@@ -42,15 +48,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            String token = authHeader.substring(7);
-            String email = jwtService.extractEmail(token);
-            String roleStr = jwtService.extractRole(token);
-            User.UserRole role = User.UserRole.valueOf(roleStr);
-
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userService.loadUserByUsername(email, role);
+            // Verify the token once; controllers read the claims from the principal
+            JwtPrincipal principal = jwtService.parseToken(authHeader.substring(7));
+            String email = principal.getEmail();
+            User.UserRole role = principal.getRole();
+
+            if (email != null && role != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Collection<? extends GrantedAuthority> authorities;
+                if (principal.getUserId() != null) {
+                    // The signed claims are trusted as is; only revoked users are turned away
+                    if (userRevocationService.isRevoked(principal.getUserId())) {
+                        logger.warn("Rejected token of revoked user: {}", principal.getUserId());
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    authorities = ApplicationUserDetails.authoritiesFor(role);
+                } else {
+                    // Tokens without an id claim still need the user lookup
+                    authorities = userService.loadUserByUsername(email, role).getAuthorities();
+                }
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 logger.debug("Authenticated user: {} with role: {}", email, role);
@@ -1,5 +1,6 @@
 package com.canpay.api.jwt;
 
+import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
@@ -7,11 +8,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import jakarta.annotation.PostConstruct;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 @ConfigurationProperties(prefix = "application.jwt")
@@ -22,8 +28,19 @@ public class JwtConfig {
     private Integer tokenExpirationAfterMinutes;
     private String privateKeyBase64;
     private String publicKeyBase64;
+    // Signing algorithm for new tokens: RS256 (default) or ES256
+    private String algorithm = "RS256";
+    // Key id written to the kid header; derived from the public key when not set
+    private String keyId;
+    // Key of the previous algorithm, still accepted for verification during a rotation
+    private String previousAlgorithm;
+    private String previousPublicKeyBase64;
+    // Key id the previous key signed with; derived from that key when not set
+    private String previousKeyId;
     private PrivateKey privateKey;
     private PublicKey publicKey;
+    private SignatureAlgorithm signatureAlgorithm;
+    private final Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
 
     public JwtConfig() {
     }
@@ -75,6 +92,58 @@ public class JwtConfig {
         this.publicKeyBase64 = publicKeyBase64;
     }
 
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+    }
+
+    public String getPreviousAlgorithm() {
+        return previousAlgorithm;
+    }
+
+    public void setPreviousAlgorithm(String previousAlgorithm) {
+        this.previousAlgorithm = previousAlgorithm;
+    }
+
+    public String getPreviousPublicKeyBase64() {
+        return previousPublicKeyBase64;
+    }
+
+    public void setPreviousPublicKeyBase64(String previousPublicKeyBase64) {
+        this.previousPublicKeyBase64 = previousPublicKeyBase64;
+    }
+
+    public String getPreviousKeyId() {
+        return previousKeyId;
+    }
+
+    public void setPreviousKeyId(String previousKeyId) {
+        this.previousKeyId = previousKeyId;
+    }
+
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * Public keys accepted for verification, by key id. The current key comes
+     * first, followed by the previous key while a rotation is in progress.
+     */
+    public Map<String, PublicKey> getVerificationKeys() {
+        return Collections.unmodifiableMap(verificationKeys);
+    }
+
     public PrivateKey getPrivateKey() {
         return privateKey;
     }
@@ -86,23 +155,64 @@ public class JwtConfig {
     @PostConstruct
     public void loadKeys() {
         try {
+            this.signatureAlgorithm = resolveAlgorithm(algorithm);
+            String keyAlgorithm = keyAlgorithm(signatureAlgorithm);
             if (privateKeyBase64 != null && !privateKeyBase64.isEmpty()) {
                 byte[] privateKeyBytes = Base64.getDecoder().decode(privateKeyBase64);
                 PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(privateKeyBytes);
-                KeyFactory kf = KeyFactory.getInstance("RSA");
+                KeyFactory kf = KeyFactory.getInstance(keyAlgorithm);
                 this.privateKey = kf.generatePrivate(keySpec);
-                logger.info("RSA private key loaded successfully.");
+                logger.info("{} private key loaded successfully.", keyAlgorithm);
             }
             if (publicKeyBase64 != null && !publicKeyBase64.isEmpty()) {
-                byte[] publicKeyBytes = Base64.getDecoder().decode(publicKeyBase64);
-                X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKeyBytes);
-                KeyFactory kf = KeyFactory.getInstance("RSA");
-                this.publicKey = kf.generatePublic(keySpec);
-                logger.info("RSA public key loaded successfully.");
+                this.publicKey = loadPublicKey(publicKeyBase64, keyAlgorithm);
+                if (keyId == null || keyId.isBlank()) {
+                    keyId = deriveKeyId(publicKey);
+                }
+                verificationKeys.put(keyId, publicKey);
+                logger.info("{} public key loaded successfully with kid {}.", keyAlgorithm, keyId);
+            }
+            if (previousPublicKeyBase64 != null && !previousPublicKeyBase64.isEmpty()) {
+                String previousKeyAlgorithm = keyAlgorithm(resolveAlgorithm(
+                        previousAlgorithm != null && !previousAlgorithm.isBlank() ? previousAlgorithm : algorithm));
+                PublicKey previousKey = loadPublicKey(previousPublicKeyBase64, previousKeyAlgorithm);
+                if (previousKeyId == null || previousKeyId.isBlank()) {
+                    previousKeyId = deriveKeyId(previousKey);
+                }
+                verificationKeys.putIfAbsent(previousKeyId, previousKey);
+                logger.info("Previous {} public key accepted for verification with kid {}.", previousKeyAlgorithm,
+                        previousKeyId);
             }
         } catch (Exception e) {
-            logger.error("Failed to load RSA keys: {}", e.getMessage());
-            throw new RuntimeException("Failed to load RSA keys", e);
+            logger.error("Failed to load JWT keys: {}", e.getMessage());
+            throw new RuntimeException("Failed to load JWT keys", e);
         }
     }
+
+    private static PublicKey loadPublicKey(String base64, String keyAlgorithm) throws Exception {
+        byte[] publicKeyBytes = Base64.getDecoder().decode(base64);
+        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKeyBytes);
+        return KeyFactory.getInstance(keyAlgorithm).generatePublic(keySpec);
+    }
+
+    private static SignatureAlgorithm resolveAlgorithm(String name) {
+        SignatureAlgorithm resolved = SignatureAlgorithm.forName(name.trim());
+        if (resolved != SignatureAlgorithm.RS256 && resolved != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm: " + name + " (use RS256 or ES256)");
+        }
+        return resolved;
+    }
+
+    private static String keyAlgorithm(SignatureAlgorithm signatureAlgorithm) {
+        return signatureAlgorithm.isEllipticCurve() ? "EC" : "RSA";
+    }
+
+    /**
+     * Derives a stable key id from the encoded public key, so every node
+     * computes the same kid without extra configuration.
+     */
+    static String deriveKeyId(PublicKey key) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+    }
 }
@@ -0,0 +1,73 @@
+package com.canpay.api.jwt;
+
+import com.canpay.api.entity.User.UserRole;
+
+import java.security.Principal;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Verified claims of a mobile access token.
+ * Built once by {@link JwtAuthFilter} and set as the authentication
+ * principal, so controllers read the caller's identity without parsing the
+ * Authorization header again.
+ */
+public final class JwtPrincipal implements Principal {
+
+    private final String email;
+    private final UserRole role;
+    private final UUID userId;
+    private final String name;
+    private final String nic;
+    private final Date expiresAt;
+
+    public JwtPrincipal(String email, UserRole role, UUID userId, String name, String nic, Date expiresAt) {
+        this.email = email;
+        this.role = role;
+        this.userId = userId;
+        this.name = name;
+        this.nic = nic;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * The token subject, which is the user's email.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean hasRole(UserRole expected) {
+        return role == expected;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getDisplayName() {
+        return name;
+    }
+
+    public String getNic() {
+        return nic;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal[" + email + ", " + role + "]";
+    }
+}
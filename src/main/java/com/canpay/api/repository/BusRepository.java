@@ -2,8 +2,11 @@ package com.canpay.api.repository;
 
 import com.canpay.api.entity.Bus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +14,8 @@ import java.util.UUID;
 public interface BusRepository extends JpaRepository<Bus, UUID> {
     Optional<Bus> findById(UUID uuid);
 
+    /** Read the ID and number of the given buses */
+    @Query("SELECT b.id, b.busNumber FROM Bus b WHERE b.id IN :ids")
+    List<Object[]> findBusNumbers(Collection<UUID> ids);
+
 }
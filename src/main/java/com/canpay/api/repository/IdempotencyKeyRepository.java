@@ -0,0 +1,53 @@
+package com.canpay.api.repository;
+
+import com.canpay.api.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, UUID> {
+    Optional<IdempotencyKey> findByIdemKey(String idemKey);
+
+    /**
+     * Record the response of a key still reserved by the owner. Returns the
+     * number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.statusCode = :statusCode, k.responseBody = :responseBody, " +
+            "k.lockedUntil = NULL, k.updatedAt = :now " +
+            "WHERE k.idemKey = :idemKey AND k.owner = :owner AND k.statusCode IS NULL")
+    int complete(String idemKey, String owner, Integer statusCode, String responseBody, LocalDateTime now);
+
+    /** Extend the lease of a key still reserved by the owner. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.lockedUntil = :lockedUntil, k.updatedAt = :now " +
+            "WHERE k.idemKey = :idemKey AND k.owner = :owner AND k.statusCode IS NULL")
+    int renew(String idemKey, String owner, LocalDateTime lockedUntil, LocalDateTime now);
+
+    /**
+     * Reserve an in-progress key for another request once its lease has
+     * expired. Returns the number of rows updated (0 when the key is still
+     * held or has completed).
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.requestHash = :requestHash, k.owner = :owner, " +
+            "k.lockedUntil = :lockedUntil, k.updatedAt = :now WHERE k.idemKey = :idemKey " +
+            "AND k.statusCode IS NULL AND (k.lockedUntil IS NULL OR k.lockedUntil < :now)")
+    int takeOver(String idemKey, String requestHash, String owner, LocalDateTime lockedUntil, LocalDateTime now);
+
+    /** Delete a key that is still in progress and reserved by the owner */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.idemKey = :idemKey AND k.owner = :owner AND k.statusCode IS NULL")
+    int deleteInProgress(String idemKey, String owner);
+
+    /** Delete keys past their retention */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
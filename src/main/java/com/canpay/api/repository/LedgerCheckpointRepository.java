@@ -0,0 +1,13 @@
+package com.canpay.api.repository;
+
+import com.canpay.api.entity.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, UUID> {
+    Optional<LedgerCheckpoint> findByName(String name);
+}
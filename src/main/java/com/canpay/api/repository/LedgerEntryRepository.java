@@ -0,0 +1,25 @@
+package com.canpay.api.repository;
+
+import com.canpay.api.entity.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+    /** Sum of all entries posted to a wallet */
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.wallet.id = :walletId")
+    BigDecimal sumAmountByWalletId(UUID walletId);
+
+    /** Whether any entry has been posted to a wallet */
+    boolean existsByWallet_Id(UUID walletId);
+
+    /** Transactions whose entries do not sum to zero */
+    @Query("SELECT e.transaction.id FROM LedgerEntry e GROUP BY e.transaction.id HAVING SUM(e.amount) <> 0")
+    List<UUID> findUnbalancedTransactionIds(Pageable pageable);
+}
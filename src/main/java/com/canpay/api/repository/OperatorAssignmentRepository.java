@@ -1,13 +1,24 @@
 package com.canpay.api.repository;
 
+import com.canpay.api.dto.PaymentContextDto;
 import com.canpay.api.entity.OperatorAssignment;
 import com.canpay.api.entity.User;
 import com.canpay.api.entity.Bus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface OperatorAssignmentRepository extends JpaRepository<OperatorAssignment, UUID> {
     Optional<OperatorAssignment> findByOperatorAndBus(User operator, Bus bus);
+
+    /** Resolve bus, operator, owner and owner wallet of an assignment in one query */
+    @Query("SELECT new com.canpay.api.dto.PaymentContextDto(b.id, b.busNumber, b.status, o.id, o.name, o.role, " +
+            "ow.id, ow.email, ow.role, w.id, a.status) " +
+            "FROM OperatorAssignment a JOIN a.bus b JOIN a.operator o JOIN b.owner ow " +
+            "LEFT JOIN Wallet w ON w.user = ow AND w.type = com.canpay.api.entity.Wallet$WalletType.OWNER " +
+            "WHERE b.id = :busId AND o.id = :operatorId")
+    List<PaymentContextDto> findPaymentContexts(UUID busId, UUID operatorId);
 }
\ No newline at end of file
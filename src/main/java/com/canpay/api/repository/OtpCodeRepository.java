@@ -0,0 +1,28 @@
+package com.canpay.api.repository;
+
+import com.canpay.api.entity.OtpCode;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OtpCodeRepository extends JpaRepository<OtpCode, UUID> {
+    Optional<OtpCode> findByEmail(String email);
+
+    /** Lock the code of an email while it is checked */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OtpCode o WHERE o.email = :email")
+    Optional<OtpCode> findByEmailForUpdate(String email);
+
+    /** Delete codes past their expiry */
+    @Modifying
+    @Query("DELETE FROM OtpCode o WHERE o.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,35 @@
+package com.canpay.api.repository;
+
+import com.canpay.api.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+    /** Replace the secret of a family if it still holds the expected one. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.tokenHash = :newHash, r.rotatedAt = :now, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.tokenHash = :oldHash AND r.revoked = false")
+    int rotate(UUID id, String oldHash, String newHash, LocalDateTime now);
+
+    /** Revoke one family */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true, r.updatedAt = :now WHERE r.id = :id")
+    int revoke(UUID id, LocalDateTime now);
+
+    /** Revoke every family of a user */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true, r.updatedAt = :now " +
+            "WHERE r.userId = :userId AND r.revoked = false")
+    int revokeAllByUserId(UUID userId, LocalDateTime now);
+
+    /** Delete families that can no longer be used */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -1,21 +1,63 @@
 package com.canpay.api.repository;
 
+import com.canpay.api.dto.RecentTransactionDto;
+import com.canpay.api.dto.WalletHistoryItemDto;
 import com.canpay.api.entity.Transaction;
-import com.canpay.api.entity.User;
+import com.canpay.api.entity.Transaction.TransactionStatus;
+import com.canpay.api.entity.Transaction.TransactionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
-    @Query("SELECT t FROM Transaction t " +
+    /** Most recent transactions of a passenger, limited by the page size */
+    @Query("SELECT new com.canpay.api.dto.RecentTransactionDto(t.id, t.amount, t.happenedAt, t.type, t.status, " +
+            "t.note, b.busNumber, o.name, ow.email) FROM Transaction t " +
             "LEFT JOIN t.bus b " +
             "LEFT JOIN t.operator o " +
             "LEFT JOIN t.owner ow " +
-            "WHERE t.passenger = :passenger " +
-            "ORDER BY t.happenedAt DESC")
-    List<Transaction> findTop10ByPassengerOrderByHappenedAtDesc(User passenger);
+            "WHERE t.passenger.id = :passengerId " +
+            "ORDER BY t.happenedAt DESC, t.id DESC")
+    List<RecentTransactionDto> findRecentByPassengerId(UUID passengerId, Pageable pageable);
+
+    /** Transactions of a passenger after the given sync sequence number, newest first */
+    @Query("SELECT new com.canpay.api.dto.RecentTransactionDto(t.id, t.amount, t.happenedAt, t.type, t.status, " +
+            "t.note, b.busNumber, o.name, ow.email) FROM Transaction t " +
+            "LEFT JOIN t.bus b " +
+            "LEFT JOIN t.operator o " +
+            "LEFT JOIN t.owner ow " +
+            "WHERE t.passenger.id = :passengerId AND t.syncSeq > :afterSeq " +
+            "ORDER BY t.syncSeq DESC")
+    List<RecentTransactionDto> findRecentByPassengerIdAfterSeq(UUID passengerId, long afterSeq, Pageable pageable);
+
+    /** Find which of the given device tap IDs the operator has already recorded */
+    @Query("SELECT t.clientTapId FROM Transaction t " +
+            "WHERE t.operator.id = :operatorId AND t.clientTapId IN :clientTapIds")
+    List<String> findExistingClientTapIds(UUID operatorId, Collection<String> clientTapIds);
+
+    /** First page of a passenger's wallet history, newest first */
+    @Query("SELECT new com.canpay.api.dto.WalletHistoryItemDto(t.id, t.happenedAt, t.type, t.status, t.amount, " +
+            "t.note, CASE WHEN t.fromWallet.id = :walletId THEN true ELSE false END) FROM Transaction t " +
+            "WHERE t.passenger.id = :passengerId " +
+            "AND (:type IS NULL OR t.type = :type) AND (:status IS NULL OR t.status = :status) " +
+            "ORDER BY t.happenedAt DESC, t.id DESC")
+    List<WalletHistoryItemDto> findWalletHistory(UUID passengerId, UUID walletId, TransactionType type,
+            TransactionStatus status, Pageable pageable);
+
+    /** Page of a passenger's wallet history after the (happenedAt, id) cursor */
+    @Query("SELECT new com.canpay.api.dto.WalletHistoryItemDto(t.id, t.happenedAt, t.type, t.status, t.amount, " +
+            "t.note, CASE WHEN t.fromWallet.id = :walletId THEN true ELSE false END) FROM Transaction t " +
+            "WHERE t.passenger.id = :passengerId " +
+            "AND (t.happenedAt < :happenedAt OR (t.happenedAt = :happenedAt AND t.id < :id)) " +
+            "AND (:type IS NULL OR t.type = :type) AND (:status IS NULL OR t.status = :status) " +
+            "ORDER BY t.happenedAt DESC, t.id DESC")
+    List<WalletHistoryItemDto> findWalletHistoryAfter(UUID passengerId, UUID walletId, LocalDateTime happenedAt,
+            UUID id, TransactionType type, TransactionStatus status, Pageable pageable);
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByEmailAndRole(String email, UserRole role);
+    List<User> findAllByEmail(String email);
     List<User> findByRole(UserRole role);
     Optional<User> findByNic(String nic);
     Optional<User> findById(UUID id);
@@ -23,6 +24,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = com.canpay.api.entity.User$UserRole.PASSENGER")
     long countPassengers();
     boolean existsByEmail(String email);
+    @Query("SELECT u.id FROM User u WHERE u.status IN :statuses")
+    List<UUID> findIdsByStatusIn(List<User.UserStatus> statuses);
     @Query(value = "SELECT COUNT(DISTINCT role) FROM users WHERE email = :email", nativeQuery = true)
     long countDistinctRolesByEmail(String email);
 }
@@ -0,0 +1,52 @@
+package com.canpay.api.repository;
+
+import com.canpay.api.entity.WalletCreditSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletCreditSlotRepository extends JpaRepository<WalletCreditSlot, UUID> {
+    /** Find the slot indexes already provisioned for a wallet */
+    @Query("SELECT s.slot FROM WalletCreditSlot s WHERE s.walletId = :walletId")
+    List<Integer> findSlotsByWalletId(UUID walletId);
+
+    /** Credit one slot of a wallet. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE WalletCreditSlot s SET s.balance = s.balance + :amount, s.updatedAt = :now " +
+            "WHERE s.walletId = :walletId AND s.slot = :slot")
+    int creditSlot(UUID walletId, int slot, BigDecimal amount, LocalDateTime now);
+
+    /** Sum of credit not yet folded into the wallet balance */
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM WalletCreditSlot s WHERE s.walletId = :walletId")
+    BigDecimal sumBalanceByWalletId(UUID walletId);
+
+    /** Sum of credit not yet folded, per wallet */
+    @Query("SELECT s.walletId, SUM(s.balance) FROM WalletCreditSlot s GROUP BY s.walletId HAVING SUM(s.balance) <> 0")
+    List<Object[]> sumBalanceGroupedByWalletId();
+
+    /** Find wallets that have credit waiting to be folded */
+    @Query("SELECT DISTINCT s.walletId FROM WalletCreditSlot s WHERE s.balance > 0")
+    List<UUID> findWalletIdsWithPendingCredit();
+
+    /** Lock all slots of a wallet for compaction */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WalletCreditSlot s WHERE s.walletId = :walletId")
+    List<WalletCreditSlot> findByWalletIdForUpdate(UUID walletId);
+
+    /** Zero all slots of a wallet after they have been folded */
+    @Modifying
+    @Query("UPDATE WalletCreditSlot s SET s.balance = 0, s.updatedAt = :now WHERE s.walletId = :walletId")
+    int resetByWalletId(UUID walletId, LocalDateTime now);
+
+    /** Delete all slots of a wallet */
+    void deleteByWalletId(UUID walletId);
+}
@@ -6,8 +6,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
     List<BankAccount> findByUser(User user);
+    List<BankAccount> findByUser_Id(UUID userId);
     Optional<BankAccount> findByUserAndIsDefaultTrue(User user);
 }
\ No newline at end of file
@@ -3,14 +3,20 @@ package com.canpay.api.repository.dashboard;
 import com.canpay.api.entity.Bus;
 import com.canpay.api.entity.Bus.BusStatus;
 import com.canpay.api.entity.Bus.BusType;
+import com.canpay.api.util.ExportWriter;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.lang.NonNull;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
 /**
@@ -98,4 +104,13 @@ public interface DBusRepository extends JpaRepository<Bus, UUID> {
 
     /** Delete buses by owner ID */
     void deleteByOwner_Id(UUID ownerId);
+
+    /** Stream buses with their owner for export, reading rows from a forward-only cursor */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id, b.busNumber, b.type, b.status, b.routeFrom, b.routeTo, b.province, " +
+            "o.id, o.email, b.createdAt FROM Bus b LEFT JOIN b.owner o")
+    Stream<Object[]> streamBusExport();
 }
@@ -2,14 +2,20 @@ package com.canpay.api.repository.dashboard;
 
 import com.canpay.api.entity.OperatorAssignment;
 import com.canpay.api.entity.OperatorAssignment.AssignmentStatus;
+import com.canpay.api.util.ExportWriter;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.lang.NonNull;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
 /**
@@ -100,4 +106,13 @@ public interface DOperatorAssignmentRepository extends JpaRepository<OperatorAss
 
     /** Delete operator assignments by operator ID and bus ID */
     void deleteByOperator_IdAndBus_Id(UUID operatorId, UUID busId);
-}
\ No newline at end of file
+
+    /** Stream assignments with their operator and bus for export, reading rows from a forward-only cursor */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id, a.status, a.assignedAt, op.id, op.name, op.email, b.id, b.busNumber " +
+            "FROM OperatorAssignment a LEFT JOIN a.operator op LEFT JOIN a.bus b")
+    Stream<Object[]> streamAssignmentExport();
+}
@@ -3,13 +3,20 @@ package com.canpay.api.repository.dashboard;
 import com.canpay.api.entity.User;
 import com.canpay.api.entity.User.UserRole;
 import com.canpay.api.entity.User.UserStatus;
+import com.canpay.api.entity.Wallet.WalletType;
+import com.canpay.api.util.ExportWriter;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
 @Repository
@@ -82,4 +89,13 @@ public interface DUserRepository extends JpaRepository<User, Long> {
 
     // Delete user by ID
     void deleteById(UUID id);
+
+    /** Stream users of a role with their wallet for export, reading rows from a forward-only cursor */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.name, u.email, u.nic, u.status, w.walletNumber, w.balance, u.createdAt " +
+            "FROM User u LEFT JOIN u.wallet w ON w.type = :walletType WHERE u.role = :role")
+    Stream<Object[]> streamUserExport(UserRole role, WalletType walletType);
 }
@@ -1,11 +1,19 @@
 package com.canpay.api.repository.dashboard;
 
+import com.canpay.api.dto.SyncStateDto;
+import com.canpay.api.dto.WalletRefDto;
 import com.canpay.api.entity.User;
+import com.canpay.api.entity.User.UserRole;
 import com.canpay.api.entity.Wallet;
 import com.canpay.api.entity.Wallet.WalletType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import java.util.UUID;
@@ -49,4 +57,77 @@ public interface DWalletRepository extends JpaRepository<Wallet, UUID> {
 
     Optional<Wallet> findByUserAndType(User user, Wallet.WalletType type);
 
+    /** Find only the ID of a user's wallet of the given type */
+    @Query("SELECT w.id FROM Wallet w WHERE w.user.id = :userId AND w.type = :type")
+    Optional<UUID> findIdByUserIdAndType(UUID userId, WalletType type);
+
+    /** Find the user and wallet IDs of a wallet by the holder's email and role */
+    @Query("SELECT new com.canpay.api.dto.WalletRefDto(u.id, w.id, w.walletNumber, u.email) FROM Wallet w " +
+            "JOIN w.user u WHERE u.email = :email AND u.role = :role AND w.type = :type")
+    Optional<WalletRefDto> findWalletRef(String email, UserRole role, WalletType type);
+
+    /** Find the user and wallet IDs of several wallets by the holders' emails and role */
+    @Query("SELECT new com.canpay.api.dto.WalletRefDto(u.id, w.id, w.walletNumber, u.email) FROM Wallet w " +
+            "JOIN w.user u WHERE u.email IN :emails AND u.role = :role AND w.type = :type")
+    List<WalletRefDto> findWalletRefs(Collection<String> emails, UserRole role, WalletType type);
+
+    /** Find the change markers a passenger sync compares against the client's cursor */
+    @Query("SELECT new com.canpay.api.dto.SyncStateDto(w.id, w.balance, w.syncSeq, " +
+            "(SELECT COUNT(b) FROM BankAccount b WHERE b.user.id = :userId), " +
+            "(SELECT MAX(b2.updatedAt) FROM BankAccount b2 WHERE b2.user.id = :userId)) " +
+            "FROM Wallet w WHERE w.user.id = :userId AND w.type = :type")
+    Optional<SyncStateDto> findSyncState(UUID userId, WalletType type);
+
+    /** Advance a wallet's sync sequence by count. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.syncSeq = COALESCE(w.syncSeq, 0) + :count WHERE w.id = :walletId")
+    int advanceSyncSeq(UUID walletId, long count);
+
+    /** Read the last sync sequence number handed out by a wallet */
+    @Query("SELECT COALESCE(w.syncSeq, 0) FROM Wallet w WHERE w.id = :walletId")
+    long findSyncSeqById(UUID walletId);
+
+    /** Read only the balance column of a wallet */
+    @Query("SELECT w.balance FROM Wallet w WHERE w.id = :walletId")
+    Optional<BigDecimal> findBalanceById(UUID walletId);
+
+    /** Read the recorded ledger opening balance of a wallet, zero if not recorded yet */
+    @Query("SELECT COALESCE(w.ledgerOpeningBalance, 0) FROM Wallet w WHERE w.id = :walletId")
+    Optional<BigDecimal> findLedgerOpeningBalanceById(UUID walletId);
+
+    /**
+     * Record the opening balance of every wallet that has none: its balance,
+     * including credit held in slots, less what its ledger entries explain.
+     * Returns the number of wallets updated.
+     */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.ledgerOpeningBalance = w.balance " +
+            "+ (SELECT COALESCE(SUM(s.balance), 0) FROM WalletCreditSlot s WHERE s.walletId = w.id) " +
+            "- (SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.wallet.id = w.id) " +
+            "WHERE w.ledgerOpeningBalance IS NULL")
+    int backfillLedgerOpeningBalances();
+
+    /**
+     * Debit a wallet only if its balance covers the amount.
+     * Returns the number of rows updated (0 when the balance is insufficient).
+     */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount, w.updatedAt = :now " +
+            "WHERE w.id = :walletId AND w.balance >= :amount")
+    int debitIfSufficient(UUID walletId, BigDecimal amount, LocalDateTime now);
+
+    /** Read the ID and balance of every wallet */
+    @Query("SELECT w.id, w.balance FROM Wallet w")
+    List<Object[]> findAllBalances();
+
+    /** Add a signed delta to a wallet balance without a balance guard. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :delta, w.updatedAt = :now WHERE w.id = :walletId")
+    int applyDelta(UUID walletId, BigDecimal delta, LocalDateTime now);
+
+    /** Credit a wallet. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.updatedAt = :now WHERE w.id = :walletId")
+    int credit(UUID walletId, BigDecimal amount, LocalDateTime now);
+
 }
\ No newline at end of file
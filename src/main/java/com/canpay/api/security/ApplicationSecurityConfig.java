@@ -1,5 +1,9 @@
 package com.canpay.api.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,6 +11,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -45,7 +50,7 @@ public class ApplicationSecurityConfig {
          *
          * @param http    HttpSecurity instance for configuring security.
          * @param issuer  Issuer URI for validating JWTs.
-         * @param jwksUri JWKS URI for fetching public keys.
+         * @param jwkSetCache Prefetched JWKS the admin tokens are verified against.
          * @return Configured SecurityFilterChain.
          * @throws Exception If an error occurs during configuration.
          */
@@ -53,9 +58,16 @@ public class ApplicationSecurityConfig {
         @Order(1)
         public SecurityFilterChain adminChain(HttpSecurity http,
                         @Value("${CLERK_ISSUER_URI}") String issuer,
-                        @Value("${CLERK_JWKS_URI}") String jwksUri)
+                        JwkSetCache jwkSetCache)
                         throws Exception {
 
+                var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+                jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetCache));
+                // Claims are validated by the decoder's Spring validators, as with jwkSetUri
+                jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+                });
+                var jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+
                 var jwtConverter = new JwtAuthenticationConverter();
                 jwtConverter.setJwtGrantedAuthoritiesConverter(new AdminClaimConverter());
 
@@ -70,7 +82,7 @@ public class ApplicationSecurityConfig {
                                                 .anyRequest().denyAll())
                                 .oauth2ResourceServer(oauth2 -> oauth2
                                                 .jwt(jwt -> jwt
-                                                                .jwkSetUri(jwksUri)
+                                                                .decoder(jwtDecoder)
                                                                 .jwtAuthenticationConverter(jwtConverter)));
 
                 return http.build();
@@ -0,0 +1,250 @@
+package com.canpay.api.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the OTP endpoints per client IP and per email before they reach
+ * AuthController. The IP limit is checked first, without reading the body;
+ * the email is then read from the JSON body, which is replayed to the
+ * controller. At most MAX_BODY_BYTES are buffered; larger bodies are
+ * rejected with 413. Rejections are plain JSON responses and never touch
+ * the database or the mail queue.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+    private static final byte[] REJECTED_BODY =
+            "{\"success\":false,\"message\":\"Too many requests, try again later\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOO_LARGE_BODY =
+            "{\"success\":false,\"message\":\"Request body too large\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final Map<String, Endpoint> endpoints;
+
+    public AuthRateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+            @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${app.rate-limit.send-otp.per-ip:20/60}") String sendOtpPerIp,
+            @Value("${app.rate-limit.send-otp.per-email:3/300}") String sendOtpPerEmail,
+            @Value("${app.rate-limit.verify-otp.per-ip:60/60}") String verifyOtpPerIp,
+            @Value("${app.rate-limit.verify-otp.per-email:10/300}") String verifyOtpPerEmail) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.endpoints = Map.of(
+                "/api/v1/auth/send-otp", new Endpoint("send-otp", RateLimiter.parse(sendOtpPerIp, maxKeys),
+                        RateLimiter.parse(sendOtpPerEmail, maxKeys), meterRegistry),
+                "/api/v1/auth/verify-otp", new Endpoint("verify-otp", RateLimiter.parse(verifyOtpPerIp, maxKeys),
+                        RateLimiter.parse(verifyOtpPerEmail, maxKeys), meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod())
+                || !endpoints.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Endpoint endpoint = endpoints.get(request.getRequestURI());
+
+        long wait = endpoint.perIp.tryAcquire(clientIp(request));
+        if (wait > 0) {
+            endpoint.rejectedIp.increment();
+            reject(response, wait);
+            return;
+        }
+
+        // One byte past the limit is enough to tell an oversized body without buffering it
+        byte[] body = request.getContentLengthLong() > MAX_BODY_BYTES
+                ? null
+                : request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body == null || body.length > MAX_BODY_BYTES) {
+            endpoint.rejectedSize.increment();
+            write(response, HttpStatus.PAYLOAD_TOO_LARGE, TOO_LARGE_BODY);
+            return;
+        }
+
+        String email = readEmail(body);
+        if (email != null) {
+            wait = endpoint.perEmail.tryAcquire(email);
+            if (wait > 0) {
+                endpoint.rejectedEmail.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        endpoint.allowed.increment();
+        filterChain.doFilter(new ReplayedBodyRequest(request, body), response);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() && !email.asText().isBlank()
+                    ? email.asText().trim().toLowerCase(Locale.ROOT)
+                    : null;
+        } catch (IOException e) {
+            // Malformed bodies are left to the controller to reject
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        logger.debug("Rate limited auth request, retry after {} s", retryAfterSeconds);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        write(response, HttpStatus.TOO_MANY_REQUESTS, REJECTED_BODY);
+    }
+
+    private static void write(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Limiters and counters of one endpoint.
+     */
+    private static final class Endpoint {
+        private final RateLimiter perIp;
+        private final RateLimiter perEmail;
+        private final Counter allowed;
+        private final Counter rejectedIp;
+        private final Counter rejectedEmail;
+        private final Counter rejectedSize;
+
+        private Endpoint(String name, RateLimiter perIp, RateLimiter perEmail, MeterRegistry meterRegistry) {
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+            this.allowed = counter(meterRegistry, name, "allowed");
+            this.rejectedIp = counter(meterRegistry, name, "rejected_ip");
+            this.rejectedEmail = counter(meterRegistry, name, "rejected_email");
+            this.rejectedSize = counter(meterRegistry, name, "rejected_size");
+            Gauge.builder("auth.rate_limit.keys", perIp, RateLimiter::size)
+                    .tag("endpoint", name).tag("key", "ip").register(meterRegistry);
+            Gauge.builder("auth.rate_limit.keys", perEmail, RateLimiter::size)
+                    .tag("endpoint", name).tag("key", "email").register(meterRegistry);
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String endpoint, String result) {
+            return Counter.builder("auth.rate_limit.requests")
+                    .tag("endpoint", endpoint)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Hands the already-read body to the rest of the chain.
+     */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private ReplayedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.canpay.api.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Key source for the admin token decoder, serving the Clerk JWKS from memory.
+ * The key set is loaded at startup, from the remote endpoint or else from
+ * the last good copy saved on disk, and refreshed in the background. A token
+ * signed with an unknown key triggers one rate-limited refresh so a key
+ * rotation is picked up without waiting for the next scheduled run.
+ * Pointing the URI at a local JWKS stand-in is enough to exercise it.
+ */
+@Component
+public class JwkSetCache implements JWKSource<SecurityContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwkSetCache.class);
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int READ_TIMEOUT_MS = 2000;
+    private static final int SIZE_LIMIT_BYTES = 64 * 1024;
+    private static final long MIN_ON_DEMAND_REFRESH_MS = 30_000;
+
+    private final String jwksUri;
+    private final Path cacheFile;
+    private volatile JWKSet keys = new JWKSet();
+    private volatile long lastOnDemandRefresh;
+
+    public JwkSetCache(@Value("${CLERK_JWKS_URI}") String jwksUri,
+            @Value("${app.admin.jwks.cache-file:./data/jwks.json}") String cacheFile) {
+        this.jwksUri = jwksUri;
+        this.cacheFile = Paths.get(cacheFile);
+    }
+
+    @PostConstruct
+    void load() {
+        if (Files.exists(cacheFile)) {
+            try {
+                keys = JWKSet.load(cacheFile.toFile());
+                logger.info("Loaded {} admin signing keys from {}", keys.getKeys().size(), cacheFile);
+            } catch (IOException | ParseException e) {
+                logger.warn("Ignoring unreadable JWKS cache {}: {}", cacheFile, e.getMessage());
+            }
+        }
+        if (!refresh()) {
+            logger.warn("Admin JWKS not reachable at startup; using {} cached keys", keys.getKeys().size());
+        }
+    }
+
+    /**
+     * Refreshes the key set from the remote endpoint.
+     */
+    @Scheduled(fixedDelayString = "${app.admin.jwks.refresh-interval-ms:300000}",
+            initialDelayString = "${app.admin.jwks.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        List<JWK> matches = jwkSelector.select(keys);
+        if (!matches.isEmpty()) {
+            return matches;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastOnDemandRefresh >= MIN_ON_DEMAND_REFRESH_MS) {
+            lastOnDemandRefresh = now;
+            if (refresh()) {
+                matches = jwkSelector.select(keys);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Fetches the remote key set and, if it has keys, swaps it in and saves it.
+     * Returns false and keeps the current keys when the fetch fails.
+     */
+    private synchronized boolean refresh() {
+        JWKSet fetched;
+        try {
+            fetched = JWKSet.load(URI.create(jwksUri).toURL(), CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS,
+                    SIZE_LIMIT_BYTES);
+        } catch (IOException | ParseException | IllegalArgumentException e) {
+            logger.error("Failed to fetch admin JWKS from {}: {}", jwksUri, e.getMessage());
+            return false;
+        }
+        if (fetched.getKeys().isEmpty()) {
+            logger.error("Admin JWKS from {} has no keys; keeping the current set", jwksUri);
+            return false;
+        }
+        keys = fetched;
+        save(fetched);
+        logger.debug("Refreshed admin JWKS: {} keys", fetched.getKeys().size());
+        return true;
+    }
+
+    private void save(JWKSet keySet) {
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "jwks", ".tmp");
+            // Public keys only
+            Files.writeString(temp, keySet.toString(true), StandardCharsets.UTF_8);
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to save admin JWKS to {}: {}", cacheFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.canpay.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiter keyed by string, one atomic per key.
+ * Each bucket is stored as the time its next token becomes due (the
+ * generic cell rate algorithm), so taking a token is a single
+ * compare-and-set with no lock. Buckets are held in a bounded Caffeine map
+ * and dropped once idle long enough to be full again.
+ */
+final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    RateLimiter(int capacity, Duration period, long maxKeys) {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and period");
+        }
+        this.intervalNanos = period.toNanos() / capacity;
+        this.burstNanos = period.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .build();
+    }
+
+    /**
+     * Parses a limit written as "capacity/seconds", such as "3/300".
+     */
+    static RateLimiter parse(String spec, long maxKeys) {
+        String[] parts = spec.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Rate limit must be capacity/seconds: " + spec);
+        }
+        return new RateLimiter(Integer.parseInt(parts[0].trim()),
+                Duration.ofSeconds(Long.parseLong(parts[1].trim())), maxKeys);
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 if one was available, otherwise
+     * the nanoseconds until the next one is.
+     */
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong due = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = due.get();
+            long next = (current - now < 0 ? now : current) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (due.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+}
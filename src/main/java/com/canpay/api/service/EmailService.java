@@ -1,5 +1,7 @@
 package com.canpay.api.service;
 
+import com.canpay.api.service.implementation.MailDispatcher;
+import com.canpay.api.util.TextTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -11,20 +13,29 @@ import java.nio.charset.StandardCharsets;
 import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Service for sending emails, specifically OTP verification emails.
+ * Templates are parsed once at startup and messages are handed to the
+ * MailDispatcher, so callers do not wait for SMTP.
  */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Autowired
     private JavaMailSender javaMailSender;
 
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    private final TextTemplate otpTemplate = TextTemplate.parse(loadTemplate("otp-email-template.html"));
+
     @Value("${fromEmail}")
     private String fromEmail;
 
@@ -32,11 +43,11 @@ public class EmailService {
     private String fromName;
 
     /**
-     * Sends an OTP verification email to the specified recipient.
+     * Queues an OTP verification email to the specified recipient.
      *
      * @param toEmail the recipient's email address
      * @param otp     the one-time password to include in the email
-     * @throws RuntimeException if sending fails
+     * @throws RuntimeException if the message cannot be built or queued
      */
     public void sendOtpEmail(String toEmail, String otp) {
         try {
@@ -53,24 +64,21 @@ public class EmailService {
             helper.setSubject(otp + " is your verification code");
 
             // Generate current timestamp
-            String timestamp = LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
 
-            // Load and populate HTML template
-            String htmlContent = loadTemplate("otp-email-template.html")
-                    .replace("${otp}", otp)
-                    .replace("${timestamp}", timestamp);
+            // Populate HTML template
+            String htmlContent = otpTemplate.render(Map.of("otp", otp, "timestamp", timestamp));
 
             // Set the email content as HTML
             helper.setText(htmlContent, true);
 
-            // Send the email
-            javaMailSender.send(mimeMessage);
+            // Queue the email; delivery and retries happen on the mail workers
+            mailDispatcher.dispatch(mimeMessage, "OTP email to " + toEmail);
 
-            logger.info("OTP email sent to {} from {} ({})", toEmail, fromEmail, fromName);
+            logger.info("OTP email queued for {} from {} ({})", toEmail, fromEmail, fromName);
 
         } catch (Exception e) {
-            logger.error("Failed to send OTP email to {}: {}", toEmail, e.getMessage());
+            logger.error("Failed to queue OTP email to {}: {}", toEmail, e.getMessage());
             throw new RuntimeException("Failed to send OTP email", e);
         }
     }
@@ -82,7 +90,7 @@ public class EmailService {
      * @return the template content as a String
      * @throws RuntimeException if the template cannot be loaded
      */
-    private String loadTemplate(String path) {
+    private static String loadTemplate(String path) {
         try {
             ClassPathResource resource = new ClassPathResource(path);
             try (InputStream inputStream = resource.getInputStream()) {
@@ -0,0 +1,37 @@
+package com.canpay.api.service;
+
+import com.canpay.api.dto.IdempotencyReservation;
+
+/**
+ * Bounded store of idempotency keys and the responses recorded for them.
+ * Keys expire after a retention period so the store does not grow without
+ * limit.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserves a key for a request.
+     * If the key was free it is now reserved and the reservation carries a
+     * new owner token; otherwise it carries the record already held for the
+     * key.
+     */
+    IdempotencyReservation reserve(String key, String requestHash);
+
+    /**
+     * Extends the lease of a key still reserved by the owner.
+     * Returns false if the owner no longer holds the key.
+     */
+    boolean renew(String key, String owner);
+
+    /**
+     * Records the response of a key reserved by the owner so retries can
+     * replay it. Does nothing if the owner no longer holds the key.
+     */
+    void complete(String key, String owner, int statusCode, String responseBody);
+
+    /**
+     * Frees a key reserved by the owner so the request can be retried.
+     * Does nothing if the owner no longer holds the key.
+     */
+    void release(String key, String owner);
+}
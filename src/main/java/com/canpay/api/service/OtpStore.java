@@ -0,0 +1,23 @@
+package com.canpay.api.service;
+
+import java.time.Duration;
+
+/**
+ * Store of one-time passwords by email.
+ * Codes expire after their time to live, can be used once, and are dropped
+ * after too many wrong attempts.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a code for an email, replacing any code issued before.
+     */
+    void save(String email, String code, Duration ttl);
+
+    /**
+     * Checks a code and consumes it when it matches.
+     * A wrong code counts as an attempt; the code is dropped once maxAttempts
+     * wrong codes have been tried.
+     */
+    boolean consume(String email, String code, int maxAttempts);
+}
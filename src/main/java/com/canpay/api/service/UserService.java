@@ -1,5 +1,6 @@
 package com.canpay.api.service;
 
+import com.canpay.api.dto.LoginResultDto;
 import com.canpay.api.entity.BankAccount;
 import com.canpay.api.entity.User;
 import com.canpay.api.entity.User.UserRole;
@@ -18,6 +19,9 @@ public interface UserService {
     @Transactional
     User registerWithEmail(String email, String roleString);
 
+    @Transactional
+    LoginResultDto loginOrRegister(String email, UserRole role);
+
     @Transactional
     User updatePassengerProfile(String email, String name, String nic, String accName, String bank, long accNo, UserRole role);
 
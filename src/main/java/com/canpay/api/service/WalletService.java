@@ -1,6 +1,8 @@
 package com.canpay.api.service;
 
+import com.canpay.api.dto.RechargeReceiptDto;
 import com.canpay.api.entity.User;
+import com.canpay.api.util.Money;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
@@ -10,9 +12,9 @@ import java.util.UUID;
 public interface WalletService {
 
     @Transactional
-    User rechargePassengerWallet(String email, double amount);
+    RechargeReceiptDto rechargePassengerWallet(String email, Money amount);
 
-    double getPassengerWalletBalance(String email);
+    Money getPassengerWalletBalance(String email);
 
     User getUserByEmailAndRole(String email);
 }
@@ -11,12 +11,17 @@ import com.canpay.api.entity.User;
 import com.canpay.api.repository.dashboard.DBusRepository;
 import com.canpay.api.repository.UserRepository;
 import com.canpay.api.lib.Utils;
+import com.canpay.api.service.implementation.PaymentContextService;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Paths;
 // import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +29,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing Bus entities.
@@ -33,6 +39,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class DBusService {
 
+    /** Columns of streamBusExport rows, in order */
+    private static final List<String> BUS_EXPORT_COLUMNS = List.of("id", "busNumber", "type", "status",
+            "routeFrom", "routeTo", "province", "ownerId", "ownerEmail", "createdAt");
+
     @Autowired
     private DBusRepository busRepository;
 
@@ -42,6 +52,12 @@ public class DBusService {
     @Autowired
     private DWalletService walletService;
 
+    @Autowired
+    private PaymentContextService paymentContextService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Base URL for document links, set in application.properties as app.base-url
     @Value("${app.base-url}")
     private String baseUrl;
@@ -118,12 +134,24 @@ public class DBusService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Writes all buses with their owner to the stream, one row at a time.
+     */
+    @Transactional(readOnly = true)
+    public long exportBuses(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = busRepository.streamBusExport();
+                ExportWriter writer = new ExportWriter(out, format, gzip, BUS_EXPORT_COLUMNS, objectMapper)) {
+            return writer.writeAll(rows);
+        }
+    }
+
     /**
      * Update bus.
      */
     public BusResponseDto updateBus(UUID id, BusRequestDto requestDto) {
         Bus existingBus = busRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Bus not found with ID: " + id));
+        paymentContextService.evictBus(id);
 
         if (requestDto.getOwnerId() != null && !requestDto.getOwnerId().equals(existingBus.getOwner().getId())) {
             User newOwner = userRepository.findById(requestDto.getOwnerId())
@@ -184,6 +212,7 @@ public class DBusService {
             Utils.deleteFile(bus.getVehicleRevenueLicense());
         }
 
+        paymentContextService.evictBus(id);
         busRepository.deleteById(id);
     }
 
@@ -263,6 +292,7 @@ public class DBusService {
                 .orElseThrow(() -> new IllegalArgumentException("Bus not found with ID: " + id));
 
         bus.setStatus(status);
+        paymentContextService.evictBus(id);
         Bus updatedBus = busRepository.save(bus);
         return convertToResponseDto(updatedBus);
     }
@@ -13,14 +13,21 @@ import com.canpay.api.entity.User;
 import com.canpay.api.repository.dashboard.DBusRepository;
 import com.canpay.api.repository.dashboard.DOperatorAssignmentRepository;
 import com.canpay.api.repository.UserRepository;
+import com.canpay.api.service.implementation.PaymentContextService;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing OperatorAssignment entities.
@@ -30,6 +37,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class DOperatorAssignmentService {
 
+    /** Columns of streamAssignmentExport rows, in order */
+    private static final List<String> ASSIGNMENT_EXPORT_COLUMNS = List.of("id", "status", "assignedAt",
+            "operatorId", "operatorName", "operatorEmail", "busId", "busNumber");
+
     @Autowired
     private DOperatorAssignmentRepository operatorAssignmentRepository;
 
@@ -45,6 +56,12 @@ public class DOperatorAssignmentService {
     @Autowired
     private DUserService userService;
 
+    @Autowired
+    private PaymentContextService paymentContextService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Create a new operator assignment.
      */
@@ -96,6 +113,19 @@ public class DOperatorAssignmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Writes all assignments with their operator and bus to the stream, one
+     * row at a time.
+     */
+    @Transactional(readOnly = true)
+    public long exportAssignments(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = operatorAssignmentRepository.streamAssignmentExport();
+                ExportWriter writer = new ExportWriter(out, format, gzip, ASSIGNMENT_EXPORT_COLUMNS,
+                        objectMapper)) {
+            return writer.writeAll(rows);
+        }
+    }
+
     /**
      * Update assignment.
      */
@@ -105,6 +135,7 @@ public class DOperatorAssignmentService {
             throw new RuntimeException("Assignment not found with ID: " + id);
         }
         OperatorAssignment existingAssignment = assignmentOpt.get();
+        paymentContextService.evict(existingAssignment.getBus().getId(), existingAssignment.getUser().getId());
 
         if (requestDto.getOperatorId() != null
                 && !requestDto.getOperatorId().equals(existingAssignment.getUser().getId())) {
@@ -139,9 +170,9 @@ public class DOperatorAssignmentService {
      * Delete assignment by ID.
      */
     public void deleteAssignment(UUID id) {
-        if (!operatorAssignmentRepository.existsById(id)) {
-            throw new RuntimeException("Assignment not found with ID: " + id);
-        }
+        OperatorAssignment assignment = operatorAssignmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Assignment not found with ID: " + id));
+        paymentContextService.evict(assignment.getBus().getId(), assignment.getUser().getId());
         operatorAssignmentRepository.deleteById(id);
     }
 
@@ -246,6 +277,7 @@ public class DOperatorAssignmentService {
             throw new RuntimeException("Assignment not found with ID: " + id);
         }
         OperatorAssignment assignment = assignmentOpt.get();
+        paymentContextService.evict(assignment.getBus().getId(), assignment.getUser().getId());
 
         assignment.setStatus(status);
         OperatorAssignment updatedAssignment = operatorAssignmentRepository.save(assignment);
@@ -0,0 +1,224 @@
+package com.canpay.api.service.dashboard;
+
+import com.canpay.api.dto.dashboard.transaction.AdminTransactionDto;
+import com.canpay.api.dto.dashboard.transaction.AdminTransactionPageDto;
+import com.canpay.api.dto.dashboard.transaction.TransactionSearchDto;
+import com.canpay.api.entity.Bus;
+import com.canpay.api.entity.Transaction;
+import com.canpay.api.entity.User;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Service for searching transactions in the dashboard context.
+ * Filters are compiled into one Criteria query that selects only the
+ * exported columns, ordered by (happenedAt, id) so pages use a keyset
+ * cursor and large ranges can be streamed without loading entities.
+ */
+@Service
+public class DTransactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DTransactionService.class);
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final List<String> EXPORT_COLUMNS = List.of("id", "happenedAt", "amount", "type", "status",
+            "note", "passengerId", "passengerEmail", "ownerId", "operatorId", "busId", "busNumber", "fromWalletId",
+            "toWalletId");
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DTransactionService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Checks that the filters describe a non-empty range.
+     * Throws IllegalArgumentException otherwise.
+     */
+    public void validateSearch(TransactionSearchDto search) {
+        if (search.getMinAmount() != null && search.getMaxAmount() != null
+                && search.getMinAmount().compareTo(search.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        if (search.getFrom() != null && search.getTo() != null && !search.getFrom().isBefore(search.getTo())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+
+    /**
+     * Gets one page of matching transactions, newest first, continuing from
+     * the cursor of the previous page.
+     * Throws IllegalArgumentException for invalid filters or cursor.
+     */
+    @Transactional(readOnly = true)
+    public AdminTransactionPageDto searchTransactions(TransactionSearchDto search, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        validateSearch(search);
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+
+        // One extra row tells whether there is a next page
+        List<AdminTransactionDto> items = buildQuery(search, after)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        if (items.size() <= limit) {
+            return new AdminTransactionPageDto(items, null);
+        }
+        List<AdminTransactionDto> pageItems = items.subList(0, limit);
+        AdminTransactionDto last = pageItems.get(limit - 1);
+        return new AdminTransactionPageDto(List.copyOf(pageItems),
+                new SearchCursor(last.getHappenedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Writes every matching transaction to the stream, newest first, reading
+     * rows from a forward-only cursor.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long streamTransactions(TransactionSearchDto search, ExportFormat format, boolean gzip,
+            OutputStream out) throws IOException {
+        validateSearch(search);
+        long count;
+        try (Stream<AdminTransactionDto> rows = buildQuery(search, null)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, ExportWriter.STREAMING_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+                ExportWriter writer = new ExportWriter(out, format, gzip, EXPORT_COLUMNS, objectMapper)) {
+            count = writer.writeAll(rows.map(DTransactionService::toExportRow));
+        }
+        logger.info("Streamed {} admin transactions", count);
+        return count;
+    }
+
+    private static Object[] toExportRow(AdminTransactionDto row) {
+        return new Object[] { row.getId(), row.getHappenedAt(), row.getAmount(), row.getType(), row.getStatus(),
+                row.getNote(), row.getPassengerId(), row.getPassengerEmail(), row.getOwnerId(),
+                row.getOperatorId(), row.getBusId(), row.getBusNumber(), row.getFromWalletId(),
+                row.getToWalletId() };
+    }
+
+    private TypedQuery<AdminTransactionDto> buildQuery(TransactionSearchDto search, SearchCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminTransactionDto> query = cb.createQuery(AdminTransactionDto.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        Join<Transaction, User> passenger = t.join("passenger");
+        Join<Transaction, Bus> bus = t.join("bus", JoinType.LEFT);
+        Path<LocalDateTime> happenedAt = t.get("happenedAt");
+        Path<UUID> id = t.get("id");
+        Path<BigDecimal> amount = t.get("amount");
+
+        query.select(cb.construct(AdminTransactionDto.class,
+                id, happenedAt, amount, t.get("type"), t.get("status"), t.get("note"),
+                passenger.get("id"), passenger.get("email"),
+                t.get("owner").get("id"), t.get("operator").get("id"),
+                bus.get("id"), bus.get("busNumber"),
+                t.get("fromWallet").get("id"), t.get("toWallet").get("id")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (search.getPassengerId() != null) {
+            predicates.add(cb.equal(passenger.get("id"), search.getPassengerId()));
+        }
+        if (search.getOwnerId() != null) {
+            predicates.add(cb.equal(t.get("owner").get("id"), search.getOwnerId()));
+        }
+        if (search.getOperatorId() != null) {
+            predicates.add(cb.equal(t.get("operator").get("id"), search.getOperatorId()));
+        }
+        if (search.getBusId() != null) {
+            predicates.add(cb.equal(t.get("bus").get("id"), search.getBusId()));
+        }
+        if (search.getWalletId() != null) {
+            predicates.add(cb.or(
+                    cb.equal(t.get("fromWallet").get("id"), search.getWalletId()),
+                    cb.equal(t.get("toWallet").get("id"), search.getWalletId())));
+        }
+        if (search.getTypes() != null && !search.getTypes().isEmpty()) {
+            predicates.add(t.get("type").in(search.getTypes()));
+        }
+        if (search.getStatuses() != null && !search.getStatuses().isEmpty()) {
+            predicates.add(t.get("status").in(search.getStatuses()));
+        }
+        if (search.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(amount, search.getMinAmount()));
+        }
+        if (search.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(amount, search.getMaxAmount()));
+        }
+        if (search.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(happenedAt, search.getFrom()));
+        }
+        if (search.getTo() != null) {
+            predicates.add(cb.lessThan(happenedAt, search.getTo()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(happenedAt, after.happenedAt),
+                    cb.and(cb.equal(happenedAt, after.happenedAt), cb.lessThan(id, after.id))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(happenedAt), cb.desc(id));
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Position in the search results, passed to clients as an opaque string.
+     */
+    private static final class SearchCursor {
+        private final LocalDateTime happenedAt;
+        private final UUID id;
+
+        private SearchCursor(LocalDateTime happenedAt, UUID id) {
+            this.happenedAt = happenedAt;
+            this.id = id;
+        }
+
+        private String encode() {
+            String raw = happenedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static SearchCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int bar = raw.indexOf('|');
+                return new SearchCursor(LocalDateTime.parse(raw.substring(0, bar)),
+                        UUID.fromString(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.canpay.api.service.dashboard;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,8 +16,15 @@ import org.springframework.transaction.annotation.Transactional;
 import com.canpay.api.entity.User;
 import com.canpay.api.entity.User.UserRole;
 import com.canpay.api.entity.User.UserStatus;
+import com.canpay.api.entity.Wallet.WalletType;
 import com.canpay.api.lib.Utils;
 import com.canpay.api.repository.dashboard.DUserRepository;
+import com.canpay.api.service.implementation.PaymentContextService;
+import com.canpay.api.service.implementation.RefreshTokenService;
+import com.canpay.api.service.implementation.UserRevocationService;
+import com.canpay.api.util.ExportFormat;
+import com.canpay.api.util.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Service for managing User entities in the dashboard context.
@@ -25,15 +34,29 @@ import com.canpay.api.repository.dashboard.DUserRepository;
 @Service
 public class DUserService {
 
+    /** Columns of streamUserExport rows, in order */
+    private static final List<String> USER_EXPORT_COLUMNS = List.of("id", "name", "email", "nic", "status",
+            "walletNumber", "walletBalance", "createdAt");
+
     private final DUserRepository userRepository;
+    private final PaymentContextService paymentContextService;
+    private final UserRevocationService userRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final ObjectMapper objectMapper;
 
     // Base URL for image links, set in application.properties as app.base-url
     @Value("${app.base-url}")
     private String baseUrl;
 
     @Autowired
-    public DUserService(DUserRepository userRepository) {
+    public DUserService(DUserRepository userRepository, PaymentContextService paymentContextService,
+            UserRevocationService userRevocationService, RefreshTokenService refreshTokenService,
+            ObjectMapper objectMapper) {
         this.userRepository = userRepository;
+        this.paymentContextService = paymentContextService;
+        this.userRevocationService = userRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -82,6 +105,7 @@ public class DUserService {
         }
 
         user.setPhotoUrl(handlePhotoUpload(photo, user.getPhotoUrl()));
+        paymentContextService.evictUser(userId);
 
         return userRepository.save(user);
     }
@@ -95,6 +119,11 @@ public class DUserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.setStatus(newStatus);
         userRepository.save(user);
+        paymentContextService.evictUser(userId);
+        userRevocationService.statusChanged(userId, newStatus);
+        if (userRevocationService.isRevoked(userId)) {
+            refreshTokenService.revokeAllForUser(userId);
+        }
     }
 
     /**
@@ -108,6 +137,9 @@ public class DUserService {
         // Delete the associated photo
         Utils.deleteFile(user.getPhotoUrl());
 
+        paymentContextService.evictUser(userId);
+        userRevocationService.userDeleted(userId);
+        refreshTokenService.revokeAllForUser(userId);
         userRepository.deleteById(userId);
     }
 
@@ -151,6 +183,19 @@ public class DUserService {
         return userRepository.findByRole(role);
     }
 
+    /**
+     * Writes all users of a role with their wallet to the stream, one row
+     * at a time.
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(UserRole role, WalletType walletType, ExportFormat format, boolean gzip,
+            OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = userRepository.streamUserExport(role, walletType);
+                ExportWriter writer = new ExportWriter(out, format, gzip, USER_EXPORT_COLUMNS, objectMapper)) {
+            return writer.writeAll(rows);
+        }
+    }
+
     /**
      * Validates user role for operations.
      */
@@ -1,18 +1,29 @@
 package com.canpay.api.service.dashboard;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.canpay.api.dto.dashboard.wallet.WalletLedgerCheckDto;
 import com.canpay.api.entity.Bus;
 import com.canpay.api.entity.Wallet;
 import com.canpay.api.entity.Wallet.WalletType;
 import com.canpay.api.entity.User;
 import com.canpay.api.lib.Utils;
+import com.canpay.api.repository.LedgerEntryRepository;
 import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.canpay.api.service.implementation.WalletStripeService;
 
 /**
  * Service for managing Wallet entities in the dashboard context.
@@ -21,11 +32,18 @@ import com.canpay.api.repository.dashboard.DWalletRepository;
 @Service
 public class DWalletService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DWalletService.class);
+
     private final DWalletRepository walletRepository;
+    private final WalletStripeService walletStripeService;
+    private final LedgerEntryRepository ledgerEntryRepository;
 
     @Autowired
-    public DWalletService(DWalletRepository walletRepository) {
+    public DWalletService(DWalletRepository walletRepository, WalletStripeService walletStripeService,
+            LedgerEntryRepository ledgerEntryRepository) {
         this.walletRepository = walletRepository;
+        this.walletStripeService = walletStripeService;
+        this.ledgerEntryRepository = ledgerEntryRepository;
     }
 
     /**
@@ -88,9 +106,10 @@ public class DWalletService {
 
     /**
      * Gets a wallet by user ID.
+     * Owner wallets include credit still held in striped credit slots.
      */
     public Optional<Wallet> getWalletByUserId(UUID userId) {
-        return walletRepository.findByUser_Id(userId);
+        return walletRepository.findByUser_Id(userId).map(walletStripeService::foldInto);
     }
 
     /**
@@ -102,9 +121,10 @@ public class DWalletService {
 
     /**
      * Gets a wallet by wallet number.
+     * Owner wallets include credit still held in striped credit slots.
      */
     public Optional<Wallet> getWalletByNumber(String walletNumber) {
-        return walletRepository.findByWalletNumber(walletNumber);
+        return walletRepository.findByWalletNumber(walletNumber).map(walletStripeService::foldInto);
     }
 
     /**
@@ -122,4 +142,41 @@ public class DWalletService {
     public void deleteWalletByBusId(UUID busId) {
         walletRepository.deleteByBus_Id(busId);
     }
+
+    /**
+     * Folds a wallet's ledger entries onto its opening balance and compares
+     * the result with its materialized balance, including credit still held
+     * in striped slots.
+     */
+    @Transactional(readOnly = true)
+    public WalletLedgerCheckDto checkLedger(UUID walletId) {
+        BigDecimal balance = walletRepository.findBalanceById(walletId)
+                .orElseThrow(() -> new NoSuchElementException("Wallet not found"));
+        return new WalletLedgerCheckDto(walletId, balance.add(walletStripeService.pendingCredit(walletId)),
+                walletRepository.findLedgerOpeningBalanceById(walletId).orElse(BigDecimal.ZERO),
+                ledgerEntryRepository.sumAmountByWalletId(walletId));
+    }
+
+    /**
+     * Records the opening balance of wallets that held money before ledger
+     * entries were posted, so checkLedger does not report them as drifted.
+     * New wallets open at zero; only wallets without a recorded value are
+     * touched, so running this on every startup is safe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillLedgerOpeningBalances() {
+        int updated = walletRepository.backfillLedgerOpeningBalances();
+        if (updated > 0) {
+            logger.info("Recorded ledger opening balances for {} wallets", updated);
+        }
+    }
+
+    /**
+     * Finds up to limit transactions whose ledger entries do not balance.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findUnbalancedTransactions(int limit) {
+        return ledgerEntryRepository.findUnbalancedTransactionIds(PageRequest.of(0, limit));
+    }
 }
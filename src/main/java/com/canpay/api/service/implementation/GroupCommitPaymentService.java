@@ -0,0 +1,248 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.PaymentReceiptDto;
+import com.canpay.api.service.implementation.PaymentService.PaymentCommand;
+import com.canpay.api.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional group-commit mode for single payments (app.payment.mode=group-commit).
+ * Payments are queued on a bounded buffer and a few writer threads apply
+ * whatever has accumulated in one database transaction, so many payments
+ * share one commit. Callers wait until the transaction holding their payment
+ * has committed, up to a timeout. A writer claims each payment before applying
+ * it, so a caller that gives up on a payment still in the queue knows it was
+ * never applied.
+ */
+@Service
+public class GroupCommitPaymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitPaymentService.class);
+
+    private final PaymentService paymentService;
+    private final boolean enabled;
+    private final BlockingQueue<QueuedPayment> queue;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean failed;
+
+    @Value("${app.payment.group-commit.writers:2}")
+    private int writerCount;
+
+    @Value("${app.payment.group-commit.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${app.payment.group-commit.linger-ms:2}")
+    private long lingerMs;
+
+    @Value("${app.payment.group-commit.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    @Value("${app.payment.group-commit.result-timeout-ms:5000}")
+    private long resultTimeoutMs;
+
+    public GroupCommitPaymentService(PaymentService paymentService,
+            @Value("${app.payment.mode:direct}") String mode,
+            @Value("${app.payment.group-commit.queue-capacity:4096}") int queueCapacity) {
+        this.paymentService = paymentService;
+        this.enabled = "group-commit".equalsIgnoreCase(mode);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Whether single payments should go through the group-commit queue.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::drainLoop, "payment-writer-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+        logger.info("Group-commit payments enabled with {} writers", writerCount);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Writers that did not finish in time leave their payments behind
+        failQueued(new IllegalStateException("Payment writer stopped"));
+    }
+
+    /**
+     * Queues a payment and waits until the batch holding it has committed.
+     * Throws the same exceptions as {@link PaymentService#pay}.
+     */
+    public PaymentReceiptDto pay(String passengerEmail, UUID busId, UUID operatorId, Money amount) {
+        paymentService.validateAmount(amount);
+        QueuedPayment payment = new QueuedPayment(new PaymentCommand(passengerEmail, busId, operatorId, amount));
+        if (!running) {
+            throw new IllegalStateException(failed ? "Payment writer stopped" : "Payment queue is not running");
+        }
+        try {
+            if (!queue.offer(payment, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Payment queue is full, rejecting payment for passenger: {}", passengerEmail);
+                throw new IllegalStateException("Payment queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing payment", e);
+        }
+        // The writers may have stopped between the check above and the offer
+        if (!running && payment.claim()) {
+            queue.remove(payment);
+            throw new IllegalStateException("Payment queue is not running");
+        }
+        return awaitResult(payment);
+    }
+
+    private PaymentReceiptDto awaitResult(QueuedPayment payment) {
+        try {
+            return payment.result.get(resultTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Payment failed", e.getCause());
+        } catch (TimeoutException e) {
+            if (payment.claim()) {
+                queue.remove(payment);
+                logger.warn("Payment for passenger {} not picked up within {} ms, rejecting it",
+                        payment.command.getPassengerEmail(), resultTimeoutMs);
+                throw new IllegalStateException("Payment queue is busy, payment was not applied");
+            }
+            logger.error("Payment for passenger {} did not commit within {} ms, outcome unknown",
+                    payment.command.getPassengerEmail(), resultTimeoutMs);
+            throw new IllegalStateException("Timed out waiting for payment to commit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for payment", e);
+        }
+    }
+
+    private void drainLoop() {
+        List<QueuedPayment> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedPayment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give concurrent payments a moment to join this commit
+                if (lingerMs > 0 && queue.size() < maxBatch - 1) {
+                    Thread.sleep(lingerMs);
+                }
+                queue.drainTo(batch, maxBatch - 1);
+                // Skip payments whose callers already gave up on them
+                batch.removeIf(payment -> !payment.claim());
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, e);
+                return;
+            } catch (Throwable e) {
+                logger.error("Payment writer failed, stopping group commit. Reason: {}", e.getMessage(), e);
+                fail(batch, e);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<QueuedPayment> batch) {
+        List<PaymentCommand> commands = batch.stream().map(payment -> payment.command).toList();
+        try {
+            paymentService.applyAll(commands);
+        } catch (RuntimeException e) {
+            // Retry one by one so a single bad payment cannot fail the others
+            logger.warn("Group commit of {} payments failed, retrying individually. Reason: {}", batch.size(),
+                    e.getMessage());
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        for (QueuedPayment payment : batch) {
+            if (payment.command.isApproved()) {
+                payment.result.complete(payment.command.getReceipt());
+            } else {
+                payment.result.completeExceptionally(payment.command.getError());
+            }
+        }
+        logger.debug("Group-committed {} payments", batch.size());
+    }
+
+    private void fail(List<QueuedPayment> batch, Throwable cause) {
+        failed = true;
+        running = false;
+        IllegalStateException error = new IllegalStateException("Payment writer stopped", cause);
+        batch.forEach(payment -> payment.result.completeExceptionally(error));
+        failQueued(error);
+    }
+
+    private void failQueued(IllegalStateException error) {
+        QueuedPayment payment;
+        while ((payment = queue.poll()) != null) {
+            if (payment.claim()) {
+                payment.result.completeExceptionally(error);
+            }
+        }
+    }
+
+    private void commitAlone(QueuedPayment payment) {
+        PaymentCommand command = payment.command;
+        try {
+            payment.result.complete(paymentService.pay(command.getPassengerEmail(), command.getBusId(),
+                    command.getOperatorId(), command.getAmount()));
+        } catch (RuntimeException e) {
+            payment.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * A queued payment and the future its caller waits on. Whoever claims it
+     * first decides its fate: a writer applies it, anyone else rejects it.
+     */
+    private static class QueuedPayment {
+        private final PaymentCommand command;
+        private final CompletableFuture<PaymentReceiptDto> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private QueuedPayment(PaymentCommand command) {
+            this.command = command;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
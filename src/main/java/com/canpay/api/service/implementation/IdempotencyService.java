@@ -0,0 +1,183 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.IdempotencyRecord;
+import com.canpay.api.dto.IdempotencyReservation;
+import com.canpay.api.service.IdempotencyStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs write requests at most once per Idempotency-Key.
+ * The first request reserves the key and its response is recorded once its
+ * transaction commits; retries with the same key replay that response
+ * without touching wallets. Server errors release the key so the client can
+ * retry. While the request runs, its reservation lease is renewed so no other
+ * request can take the key over.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    // Keys reserved by requests still running on this node, by owner token
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs the action once for the given key within the scope (endpoint and
+     * caller). Without a key the action simply runs.
+     */
+    public ResponseEntity<?> execute(String idempotencyKey, String scope, Object request,
+            Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String key = sha256(scope + "\n" + idempotencyKey);
+        String requestHash = sha256(toJson(request, true));
+
+        IdempotencyReservation reservation = store.reserve(key, requestHash);
+        if (!reservation.isGranted()) {
+            return respondToRetry(reservation.getExisting(), requestHash, scope);
+        }
+        String owner = reservation.getOwner();
+        inFlight.put(key, owner);
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, owner);
+            store.release(key, owner);
+            throw e;
+        }
+
+        if (response.getStatusCode().is5xxServerError()) {
+            afterCompletion(committed -> {
+                inFlight.remove(key, owner);
+                store.release(key, owner);
+            });
+        } else {
+            int statusCode = response.getStatusCode().value();
+            String body = toJson(response.getBody(), false);
+            afterCompletion(committed -> {
+                inFlight.remove(key, owner);
+                if (committed) {
+                    store.complete(key, owner, statusCode, body);
+                } else {
+                    store.release(key, owner);
+                }
+            });
+        }
+        return response;
+    }
+
+    /**
+     * Renews the leases of keys whose requests are still running on this node,
+     * so a slow request keeps its key until it completes or releases it.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.lease-renew-interval-ms:10000}")
+    public void renewLeases() {
+        inFlight.forEach((key, owner) -> {
+            try {
+                if (!store.renew(key, owner)) {
+                    logger.warn("Idempotency key {} was lost by its running request", key);
+                    inFlight.remove(key, owner);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to renew idempotency key {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    private ResponseEntity<?> respondToRetry(IdempotencyRecord existing, String requestHash, String scope) {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            logger.warn("Idempotency key reused with a different request in scope: {}", scope);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("success", false, "message", HEADER + " was already used for a different request"));
+        }
+        if (!existing.isCompleted()) {
+            logger.debug("Idempotent request still in progress in scope: {}", scope);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", "A request with this " + HEADER + " is still being processed"));
+        }
+        logger.info("Replaying recorded response in scope: {}", scope);
+        try {
+            return ResponseEntity.status(existing.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.readTree(existing.getResponseBody()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Recorded response is not valid JSON", e);
+        }
+    }
+
+    // Records the outcome only once the surrounding transaction has finished
+    private void afterCompletion(OutcomeHandler handler) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            handler.handle(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                handler.handle(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private String toJson(Object value, boolean sortKeys) {
+        try {
+            return sortKeys
+                    ? objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsString(value)
+                    : objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent request or response", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private interface OutcomeHandler {
+        void handle(boolean committed);
+    }
+}
@@ -0,0 +1,108 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.IdempotencyRecord;
+import com.canpay.api.dto.IdempotencyReservation;
+import com.canpay.api.service.IdempotencyStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Idempotency store kept in a bounded Caffeine cache.
+ * Suitable for a single node; keys are evicted after the retention period or
+ * when the cache is full. In-progress reservations are leased and taken
+ * over once the lease has expired. Records are only replaced by compare and
+ * set, so a request acts on a key only while its owner token still holds it.
+ */
+@Service
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryIdempotencyStore.class);
+
+    private final Cache<String, IdempotencyRecord> records;
+    private final long leaseSeconds;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${app.idempotency.retention-hours:24}") long retentionHours,
+            @Value("${app.idempotency.lease-seconds:30}") long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofHours(retentionHours))
+                .build();
+    }
+
+    @Override
+    public IdempotencyReservation reserve(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = UUID.randomUUID().toString();
+        IdempotencyRecord reserved = IdempotencyRecord.inProgress(requestHash, owner, now.plusSeconds(leaseSeconds));
+        ConcurrentMap<String, IdempotencyRecord> map = records.asMap();
+        while (true) {
+            IdempotencyRecord existing = map.putIfAbsent(key, reserved);
+            if (existing == null) {
+                return IdempotencyReservation.granted(owner);
+            }
+            if (!existing.isLeaseExpired(now)) {
+                return IdempotencyReservation.held(existing);
+            }
+            // Replace only the abandoned record we saw, so one request wins the takeover
+            if (map.replace(key, existing, reserved)) {
+                logger.warn("Took over idempotency key {} after its lease expired", key);
+                return IdempotencyReservation.granted(owner);
+            }
+        }
+    }
+
+    @Override
+    public boolean renew(String key, String owner) {
+        ConcurrentMap<String, IdempotencyRecord> map = records.asMap();
+        while (true) {
+            IdempotencyRecord held = map.get(key);
+            if (held == null || !held.isHeldBy(owner)) {
+                return false;
+            }
+            IdempotencyRecord renewed = IdempotencyRecord.inProgress(held.getRequestHash(), owner,
+                    LocalDateTime.now().plusSeconds(leaseSeconds));
+            if (map.replace(key, held, renewed)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String owner, int statusCode, String responseBody) {
+        ConcurrentMap<String, IdempotencyRecord> map = records.asMap();
+        while (true) {
+            IdempotencyRecord held = map.get(key);
+            if (held == null || !held.isHeldBy(owner)) {
+                logger.warn("Idempotency key {} is no longer held by its request, response not recorded", key);
+                return;
+            }
+            if (map.replace(key, held, new IdempotencyRecord(held.getRequestHash(), statusCode, responseBody))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        ConcurrentMap<String, IdempotencyRecord> map = records.asMap();
+        while (true) {
+            IdempotencyRecord held = map.get(key);
+            if (held == null || !held.isHeldBy(owner) || map.remove(key, held)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.service.OtpStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * OTP store kept in a bounded Caffeine cache, for a single node.
+ * Each entry expires at its own deadline through Caffeine's timer wheel and
+ * the least recently used entries are evicted when the cache is full.
+ */
+@Service
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Cache<String, Entry> codes;
+
+    public InMemoryOtpStore(@Value("${app.otp.max-entries:100000}") long maxEntries) {
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilDeadline())
+                .build();
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        codes.put(email, new Entry(code, 0, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public boolean consume(String email, String code, int maxAttempts) {
+        boolean[] matched = new boolean[1];
+        codes.asMap().computeIfPresent(email, (key, entry) -> {
+            if (entry.code.equals(code)) {
+                matched[0] = true;
+                return null;
+            }
+            int attempts = entry.attempts + 1;
+            return attempts >= maxAttempts ? null : new Entry(entry.code, attempts, entry.deadlineNanos);
+        });
+        return matched[0];
+    }
+
+    private static final class Entry {
+        private final String code;
+        private final int attempts;
+        private final long deadlineNanos;
+
+        private Entry(String code, int attempts, long deadlineNanos) {
+            this.code = code;
+            this.attempts = attempts;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /**
+     * Expires an entry at the deadline it was saved with; wrong attempts do
+     * not extend it.
+     */
+    private static class UntilDeadline implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return Math.max(entry.deadlineNanos - currentTime, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
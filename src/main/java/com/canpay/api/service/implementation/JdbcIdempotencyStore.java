@@ -0,0 +1,125 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.IdempotencyRecord;
+import com.canpay.api.dto.IdempotencyReservation;
+import com.canpay.api.entity.IdempotencyKey;
+import com.canpay.api.repository.IdempotencyKeyRepository;
+import com.canpay.api.service.IdempotencyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency store backed by the idempotency_keys table, for deployments
+ * with more than one node. Every call runs in its own transaction so a
+ * reservation is visible to other nodes before the guarded request commits.
+ * A reservation is leased to an owner token; if its request dies without
+ * completing or releasing the key, another request takes it over once the
+ * lease expires. Completing, renewing and releasing only match rows still
+ * held by the caller's token.
+ */
+@Service
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${app.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${app.idempotency.lease-seconds:30}")
+    private long leaseSeconds;
+
+    public JdbcIdempotencyStore(IdempotencyKeyRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public IdempotencyReservation reserve(String key, String requestHash) {
+        String owner = UUID.randomUUID().toString();
+        try {
+            return newTransaction.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime lockedUntil = now.plusSeconds(leaseSeconds);
+                Optional<IdempotencyKey> existing = repository.findByIdemKey(key);
+                if (existing.isPresent()) {
+                    IdempotencyKey row = existing.get();
+                    if (row.getExpiresAt().isAfter(now)) {
+                        // The update only matches an abandoned reservation, so one request wins
+                        if (row.getStatusCode() == null
+                                && repository.takeOver(key, requestHash, owner, lockedUntil, now) == 1) {
+                            logger.warn("Took over idempotency key {} after its lease expired", key);
+                            return IdempotencyReservation.granted(owner);
+                        }
+                        return IdempotencyReservation.held(toRecord(row));
+                    }
+                    repository.delete(row);
+                    repository.flush();
+                }
+                repository.saveAndFlush(new IdempotencyKey(key, requestHash, owner, lockedUntil,
+                        now.plusHours(retentionHours)));
+                return IdempotencyReservation.granted(owner);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node reserved the key first
+            return IdempotencyReservation.held(newTransaction.execute(status -> repository.findByIdemKey(key)
+                    .map(this::toRecord)
+                    .orElse(IdempotencyRecord.inProgress(requestHash))));
+        }
+    }
+
+    @Override
+    public boolean renew(String key, String owner) {
+        Integer renewed = newTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return repository.renew(key, owner, now.plusSeconds(leaseSeconds), now);
+        });
+        return renewed != null && renewed == 1;
+    }
+
+    @Override
+    public void complete(String key, String owner, int statusCode, String responseBody) {
+        newTransaction.executeWithoutResult(status -> {
+            if (repository.complete(key, owner, statusCode, responseBody, LocalDateTime.now()) == 0) {
+                logger.warn("Idempotency key {} is no longer held by its request, response not recorded", key);
+            }
+        });
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        newTransaction.executeWithoutResult(status -> repository.deleteInProgress(key, owner));
+    }
+
+    /**
+     * Purges keys past their retention.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer purged = newTransaction.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private IdempotencyRecord toRecord(IdempotencyKey row) {
+        return new IdempotencyRecord(row.getRequestHash(), row.getStatusCode(), row.getResponseBody(),
+                row.getOwner(), row.getLockedUntil());
+    }
+}
@@ -0,0 +1,96 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.entity.OtpCode;
+import com.canpay.api.repository.OtpCodeRepository;
+import com.canpay.api.service.OtpStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * OTP store backed by the otp_codes table, for deployments with more than
+ * one node behind a load balancer. A check locks the row so concurrent
+ * attempts on different nodes are counted and a code is consumed once.
+ */
+@Service
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements OtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcOtpStore.class);
+
+    private final OtpCodeRepository repository;
+    private final TransactionTemplate newTransaction;
+
+    public JdbcOtpStore(OtpCodeRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        try {
+            upsert(email, code, ttl);
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the first code for this email; overwrite it
+            upsert(email, code, ttl);
+        }
+    }
+
+    @Override
+    public boolean consume(String email, String code, int maxAttempts) {
+        Boolean matched = newTransaction.execute(status -> {
+            Optional<OtpCode> row = repository.findByEmailForUpdate(email);
+            if (row.isEmpty()) {
+                return false;
+            }
+            OtpCode otp = row.get();
+            if (otp.getExpiresAt().isBefore(LocalDateTime.now())) {
+                repository.delete(otp);
+                return false;
+            }
+            if (otp.getCode().equals(code)) {
+                repository.delete(otp);
+                return true;
+            }
+            otp.setAttempts(otp.getAttempts() + 1);
+            if (otp.getAttempts() >= maxAttempts) {
+                repository.delete(otp);
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(matched);
+    }
+
+    /**
+     * Purges codes past their expiry.
+     */
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Integer purged = newTransaction.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            logger.debug("Purged {} expired OTP codes", purged);
+        }
+    }
+
+    private void upsert(String email, String code, Duration ttl) {
+        newTransaction.executeWithoutResult(status -> {
+            LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+            OtpCode otp = repository.findByEmail(email).orElseGet(() -> new OtpCode(email, code, expiresAt));
+            otp.setCode(code);
+            otp.setAttempts(0);
+            otp.setExpiresAt(expiresAt);
+            repository.saveAndFlush(otp);
+        });
+    }
+}
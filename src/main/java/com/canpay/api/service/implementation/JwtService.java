@@ -2,42 +2,86 @@ package com.canpay.api.service.implementation;
 
 import com.canpay.api.entity.User;
 import com.canpay.api.jwt.JwtConfig;
+import com.canpay.api.jwt.JwtPrincipal;
 import com.canpay.api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Key;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
     private final JwtConfig jwtConfig;
     private final PrivateKey privateKey;
-    private final PublicKey publicKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final String keyId;
+    // Parsers are immutable and thread-safe, so one is built up front and shared
+    private final JwtParser jwtParser;
+    // One parser per verification key, by key family, for tokens without a kid header
+    private final Map<String, List<JwtParser>> keylessParsers = new LinkedHashMap<>();
+    // Verified claims keyed by a SHA-256 of the token, each kept until the token expires
+    private final Cache<String, Claims> verifiedClaims;
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
     @Autowired
     private UserRepository userRepository;
 
-    public JwtService(JwtConfig jwtConfig, UserRepository userRepository) {
-        logger.info("JwtService initialized with RSA keys....");
+    public JwtService(JwtConfig jwtConfig, UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${app.jwt.claims-cache.max-size:50000}") long claimsCacheMaxSize) {
         this.jwtConfig = jwtConfig;
         this.privateKey = jwtConfig.getPrivateKey();
-        this.publicKey = jwtConfig.getPublicKey();
+        this.signatureAlgorithm = jwtConfig.getSignatureAlgorithm();
+        this.keyId = jwtConfig.getKeyId();
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KeyIdResolver(jwtConfig.getVerificationKeys()))
+                .build();
+        for (PublicKey key : jwtConfig.getVerificationKeys().values()) {
+            keylessParsers.computeIfAbsent(key.getAlgorithm(), family -> new ArrayList<>())
+                    .add(Jwts.parserBuilder().setSigningKey(key).build());
+        }
         this.userRepository = userRepository;
-        logger.info("JwtService initialized with RSA keys.");
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwtClaims");
+        logger.info("JwtService initialized with {} signing key {}.", signatureAlgorithm, keyId);
     }
 
     public String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtConfig.getTokenExpirationAfterMinutes() * 60 * 1000L);
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
                 .setSubject(user.getEmail())
                 .claim("role", user.getRole())
                 .claim("name", user.getName())
@@ -45,10 +89,26 @@ public class JwtService {
                 .claim("nic", user.getNic())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(privateKey, SignatureAlgorithm.RS256)
+                .signWith(privateKey, signatureAlgorithm)
                 .compact();
     }
 
+    /**
+     * Verifies a token once and returns its claims as a principal.
+     * Throws RuntimeException if the token is invalid or expired.
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        String role = claims.get("role", String.class);
+        String id = claims.get("id", String.class);
+        return new JwtPrincipal(claims.getSubject(),
+                role != null ? User.UserRole.valueOf(role) : null,
+                id != null ? UUID.fromString(id) : null,
+                claims.get("name", String.class),
+                claims.get("nic", String.class),
+                claims.getExpiration());
+    }
+
     public String extractEmail(String token) {
         return extractAllClaims(token).getSubject();
     }
@@ -61,17 +121,64 @@ public class JwtService {
         return UUID.fromString(extractAllClaims(token).get("id", String.class));
     }
 
+    /**
+     * Returns the claims of a verified token, checking the signature only the
+     * first time a token is seen. Tokens without an expiry are not cached.
+     */
     private Claims extractAllClaims(String token) {
+        String key = hash(token);
+        Claims cached = verifiedClaims.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims;
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(publicKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            claims = verify(token);
         } catch (Exception e) {
             logger.error("Failed to parse JWT: {}", e.getMessage());
             throw new RuntimeException("Invalid JWT token", e);
         }
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+
+    private Claims verify(String token) {
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (MissingKeyIdException e) {
+            return verifyWithEachKey(token, e.getFamily());
+        }
+    }
+
+    /**
+     * Tokens issued before key ids were added name no key, so each key of
+     * their algorithm family is tried until one verifies the signature.
+     */
+    private Claims verifyWithEachKey(String token, String family) {
+        List<JwtParser> parsers = keylessParsers.getOrDefault(family, List.of());
+        if (parsers.isEmpty()) {
+            throw new UnsupportedJwtException("No key for algorithm family: " + family);
+        }
+        SignatureException lastFailure = null;
+        for (JwtParser parser : parsers) {
+            try {
+                return parser.parseClaimsJws(token).getBody();
+            } catch (SignatureException e) {
+                lastFailure = e;
+            }
+        }
+        throw lastFailure;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public boolean isTokenValid(String token) {
@@ -83,4 +190,66 @@ public class JwtService {
             return false;
         }
     }
+
+    /**
+     * Picks the verification key named by the kid header. Tokens issued
+     * before key ids were added are handed back to verifyWithEachKey with
+     * the key family their alg header names.
+     */
+    private static class KeyIdResolver extends SigningKeyResolverAdapter {
+        private final Map<String, PublicKey> keys;
+
+        KeyIdResolver(Map<String, PublicKey> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String kid = header.getKeyId();
+            if (kid != null) {
+                PublicKey key = keys.get(kid);
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown signing key: " + kid);
+                }
+                return key;
+            }
+            String family = SignatureAlgorithm.forName(header.getAlgorithm()).isEllipticCurve() ? "EC" : "RSA";
+            throw new MissingKeyIdException(family);
+        }
+    }
+
+    private static class MissingKeyIdException extends UnsupportedJwtException {
+        private final String family;
+
+        MissingKeyIdException(String family) {
+            super("Token has no key id");
+            this.family = family;
+        }
+
+        String getFamily() {
+            return family;
+        }
+    }
+
+    /**
+     * Expires each cached entry at the exp claim of its token.
+     */
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.entity.LedgerEntry;
+import com.canpay.api.entity.Transaction;
+import com.canpay.api.repository.LedgerEntryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Posts double-entry ledger entries for transactions.
+ * Callers post in the same database transaction that moves the wallet
+ * balances, so the materialized Wallet.balance and the sum of the wallet's
+ * entries move together. Entries are insert-only and batched by Hibernate.
+ */
+@Service
+public class LedgerEntryService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    public LedgerEntryService(LedgerEntryRepository ledgerEntryRepository) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+    }
+
+    /**
+     * Posts the entries of one saved transaction.
+     */
+    @Transactional
+    public void post(Transaction transaction) {
+        ledgerEntryRepository.saveAll(entriesOf(transaction));
+    }
+
+    /**
+     * Posts the entries of many saved transactions in one batch.
+     */
+    @Transactional
+    public void postAll(Collection<Transaction> transactions) {
+        List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            entries.addAll(entriesOf(transaction));
+        }
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    // Debit the source and credit the destination; a missing side is the external account
+    private List<LedgerEntry> entriesOf(Transaction transaction) {
+        if (transaction.getId() == null) {
+            throw new IllegalStateException("Transaction must be saved before posting ledger entries");
+        }
+        return List.of(
+                new LedgerEntry(transaction, transaction.getFromWallet(), transaction.getAmount().negate()),
+                new LedgerEntry(transaction, transaction.getToWallet(), transaction.getAmount()));
+    }
+}
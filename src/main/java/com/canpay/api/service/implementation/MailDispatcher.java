@@ -0,0 +1,159 @@
+package com.canpay.api.service.implementation;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends mail off the request thread.
+ * Messages go onto a bounded queue served by a small worker pool. Each worker
+ * keeps its own SMTP connection open between messages and reconnects when
+ * the server has dropped it. Failed sends are retried with exponential
+ * backoff; a full queue is reported to the caller straight away.
+ */
+@Service
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final JavaMailSender mailSender;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final ThreadLocal<Transport> transports = new ThreadLocal<>();
+    private final Queue<Transport> openTransports = new ConcurrentLinkedQueue<>();
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public MailDispatcher(JavaMailSender mailSender,
+            @Value("${app.mail.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.mail.workers:2}") int workerCount,
+            @Value("${app.mail.max-attempts:4}") int maxAttempts,
+            @Value("${app.mail.retry-backoff-ms:1000}") long backoffMs) {
+        this.mailSender = mailSender;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "mail-sender-" + threadCount.incrementAndGet()));
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "mail-retry"));
+    }
+
+    /**
+     * Queues a message for delivery. Throws RuntimeException if the queue is
+     * full.
+     */
+    public void dispatch(MimeMessage message, String description) {
+        submit(message, description, 1);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        retries.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Mail queue not drained on shutdown: {} messages dropped", workers.getQueue().size());
+            workers.shutdownNow();
+        }
+        for (Transport transport : openTransports) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void submit(MimeMessage message, String description, int attempt) {
+        try {
+            workers.execute(() -> send(message, description, attempt));
+        } catch (RejectedExecutionException e) {
+            logger.error("Mail queue full, dropping {}", description);
+            throw new RuntimeException("Mail queue is full", e);
+        }
+    }
+
+    private void send(MimeMessage message, String description, int attempt) {
+        try {
+            if (mailSender instanceof JavaMailSenderImpl senderImpl) {
+                Transport transport = connectedTransport(senderImpl);
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+            } else {
+                mailSender.send(message);
+            }
+            logger.info("Mail sent: {}", description);
+        } catch (Exception e) {
+            closeTransport();
+            if (attempt >= maxAttempts) {
+                logger.error("Giving up on {} after {} attempts: {}", description, attempt, e.getMessage());
+                return;
+            }
+            long delay = backoffMs << (attempt - 1);
+            logger.warn("Failed to send {} (attempt {}), retrying in {} ms: {}", description, attempt, delay,
+                    e.getMessage());
+            try {
+                retries.schedule(() -> resubmit(message, description, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                logger.error("Dropping {} during shutdown", description);
+            }
+        }
+    }
+
+    private void resubmit(MimeMessage message, String description, int attempt) {
+        try {
+            submit(message, description, attempt);
+        } catch (RuntimeException e) {
+            // Already logged; the queue is full of newer mail
+        }
+    }
+
+    /**
+     * Gets this worker's SMTP connection, opening it if needed.
+     */
+    private Transport connectedTransport(JavaMailSenderImpl senderImpl) throws MessagingException {
+        Transport transport = transports.get();
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        closeTransport();
+        String protocol = senderImpl.getProtocol() != null ? senderImpl.getProtocol() : "smtp";
+        transport = senderImpl.getSession().getTransport(protocol);
+        transport.connect(senderImpl.getHost(), senderImpl.getPort(), senderImpl.getUsername(),
+                senderImpl.getPassword());
+        transports.set(transport);
+        openTransports.add(transport);
+        return transport;
+    }
+
+    private void closeTransport() {
+        Transport transport = transports.get();
+        if (transport == null) {
+            return;
+        }
+        transports.remove();
+        openTransports.remove(transport);
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+}
@@ -1,33 +1,47 @@
 package com.canpay.api.service.implementation;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.canpay.api.service.EmailService;
+import com.canpay.api.service.OtpStore;
 
-import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
+import java.time.Duration;
 
 @Service
 public class OTPService {
 
-    private final Map<String, String> otpStorage = new ConcurrentHashMap<>();
-    private final EmailService emailService;
+    private static final Logger logger = LoggerFactory.getLogger(OTPService.class);
 
-    public OTPService(EmailService emailService) {
+    private final OtpStore otpStore;
+    private final EmailService emailService;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final int maxAttempts;
+
+    public OTPService(OtpStore otpStore, EmailService emailService,
+            @Value("${app.otp.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.otp.max-attempts:5}") int maxAttempts) {
+        this.otpStore = otpStore;
         this.emailService = emailService;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxAttempts = maxAttempts;
     }
 
     public void sendOtp(String email) {
-        String otp = String.valueOf(new Random().nextInt(899999) + 100000);
-        otpStorage.put(email, otp);
+        String otp = String.valueOf(random.nextInt(900000) + 100000);
+        otpStore.save(email, otp, ttl);
         emailService.sendOtpEmail(email, otp);
-        System.out.println("OTP for " + email + " is: " + otp);
+        logger.debug("OTP issued for {}", email);
     }
 
+    /**
+     * Checks an OTP; a matching code is consumed and cannot be used again.
+     */
     public boolean verifyOtp(String email, String otp) {
-        System.out.println("OTP verified in service");
-        return otp.equals(otpStorage.get(email));
-
+        return otp != null && otpStore.consume(email, otp, maxAttempts);
     }
 }
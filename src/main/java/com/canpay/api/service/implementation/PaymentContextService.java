@@ -0,0 +1,158 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.PaymentContextDto;
+import com.canpay.api.entity.Bus;
+import com.canpay.api.entity.Transaction;
+import com.canpay.api.entity.User;
+import com.canpay.api.entity.Wallet;
+import com.canpay.api.repository.BusRepository;
+import com.canpay.api.repository.OperatorAssignmentRepository;
+import com.canpay.api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resolves and caches the context of a tap for a (busId, operatorId) pair:
+ * bus number, operator, owner, owner wallet and assignment status.
+ * The context is the same for every passenger on a trip, so it is read with
+ * a single query on a miss and served from a bounded TTL cache afterwards.
+ * Dashboard services evict entries when buses, users or assignments change.
+ */
+@Service
+public class PaymentContextService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentContextService.class);
+
+    private final OperatorAssignmentRepository operatorAssignmentRepository;
+    private final BusRepository busRepository;
+    private final UserRepository userRepository;
+    private final Cache<String, PaymentContextDto> cache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PaymentContextService(OperatorAssignmentRepository operatorAssignmentRepository,
+            BusRepository busRepository, UserRepository userRepository,
+            @Value("${app.payment.context-cache.max-size:10000}") long maxSize,
+            @Value("${app.payment.context-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.operatorAssignmentRepository = operatorAssignmentRepository;
+        this.busRepository = busRepository;
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Gets the payment context for a bus and operator.
+     * Throws IllegalArgumentException when the operator is not an operator and
+     * RuntimeException when the bus, operator or assignment is missing.
+     */
+    public PaymentContextDto resolve(UUID busId, UUID operatorId) {
+        String key = key(busId, operatorId);
+        PaymentContextDto context = cache.getIfPresent(key);
+        if (context != null) {
+            return context;
+        }
+
+        List<PaymentContextDto> contexts = operatorAssignmentRepository.findPaymentContexts(busId, operatorId);
+        if (contexts.isEmpty()) {
+            throw explainMissingContext(busId, operatorId);
+        }
+        context = contexts.get(0);
+        // Incomplete contexts are not cached so a wallet created later is picked up
+        if (context.getOwnerWalletId() != null) {
+            cache.put(key, context);
+        }
+        return context;
+    }
+
+    /**
+     * Builds an approved payment transaction from a resolved context using
+     * entity references only.
+     */
+    public Transaction newPaymentTransaction(PaymentContextDto context, UUID passengerId, UUID passengerWalletId,
+            BigDecimal amount) {
+        Transaction transaction = new Transaction(amount, Transaction.TransactionType.PAYMENT,
+                entityManager.getReference(User.class, passengerId),
+                entityManager.getReference(Bus.class, context.getBusId()),
+                entityManager.getReference(User.class, context.getOperatorId()));
+        transaction.setOwner(entityManager.getReference(User.class, context.getOwnerId()));
+        transaction.setFromWallet(entityManager.getReference(Wallet.class, passengerWalletId));
+        transaction.setToWallet(entityManager.getReference(Wallet.class, context.getOwnerWalletId()));
+        transaction.setStatus(Transaction.TransactionStatus.APPROVED);
+        transaction.setNote("Payment for bus " + context.getBusNumber());
+        return transaction;
+    }
+
+    /**
+     * Evicts the context of one assignment.
+     */
+    public void evict(UUID busId, UUID operatorId) {
+        runNowAndAfterCommit(() -> cache.invalidate(key(busId, operatorId)));
+    }
+
+    /**
+     * Evicts every context of a bus.
+     */
+    public void evictBus(UUID busId) {
+        runNowAndAfterCommit(() -> cache.asMap().values().removeIf(context -> busId.equals(context.getBusId())));
+    }
+
+    /**
+     * Evicts every context the user appears in, as operator or as owner.
+     */
+    public void evictUser(UUID userId) {
+        runNowAndAfterCommit(() -> cache.asMap().values().removeIf(
+                context -> userId.equals(context.getOperatorId()) || userId.equals(context.getOwnerId())));
+    }
+
+    private RuntimeException explainMissingContext(UUID busId, UUID operatorId) {
+        if (busRepository.findById(busId).isEmpty()) {
+            logger.warn("Bus not found: {}", busId);
+            return new RuntimeException("Bus not found");
+        }
+        User operator = userRepository.findById(operatorId).orElse(null);
+        if (operator == null) {
+            logger.warn("Operator not found: {}", operatorId);
+            return new RuntimeException("Operator not found");
+        }
+        if (!User.UserRole.OPERATOR.equals(operator.getRole())) {
+            logger.warn("User is not an operator: {}", operatorId);
+            return new IllegalArgumentException("Invalid operator");
+        }
+        logger.warn("Operator {} not assigned to bus {}", operatorId, busId);
+        return new RuntimeException("Operator not assigned to bus");
+    }
+
+    // Evicting again after commit stops a concurrent miss from caching the old row
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private String key(UUID busId, UUID operatorId) {
+        return busId + ":" + operatorId;
+    }
+}
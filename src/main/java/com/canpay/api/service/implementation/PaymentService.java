@@ -0,0 +1,459 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.PaymentContextDto;
+import com.canpay.api.dto.PaymentReceiptDto;
+import com.canpay.api.dto.TapRequestDto;
+import com.canpay.api.dto.TapResultDto;
+import com.canpay.api.dto.WalletRefDto;
+import com.canpay.api.entity.Transaction;
+import com.canpay.api.entity.User.UserRole;
+import com.canpay.api.entity.Wallet.WalletType;
+import com.canpay.api.repository.TransactionRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.canpay.api.service.implementation.WalletMovementService.MovementResult;
+import com.canpay.api.service.ledger.LedgerEngine;
+import com.canpay.api.service.ledger.LedgerReceipt;
+import com.canpay.api.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Applies fare payments from passenger wallets to owner wallets.
+ * Single taps come from the passenger app; batches of buffered taps come
+ * from validator devices and share the same validation rules.
+ */
+@Service
+public class PaymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final DWalletRepository walletRepository;
+    private final UserServiceImpl userService;
+    private final PaymentContextService paymentContextService;
+    private final WalletMovementService walletMovementService;
+    private final TransactionRepository transactionRepository;
+    private final LedgerEntryService ledgerEntryService;
+    private final LedgerEngine ledgerEngine;
+    private final TransactionService transactionService;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentService(DWalletRepository walletRepository, UserServiceImpl userService,
+            PaymentContextService paymentContextService, WalletMovementService walletMovementService,
+            TransactionRepository transactionRepository, LedgerEntryService ledgerEntryService,
+            LedgerEngine ledgerEngine, TransactionService transactionService,
+            PlatformTransactionManager transactionManager) {
+        this.walletRepository = walletRepository;
+        this.userService = userService;
+        this.paymentContextService = paymentContextService;
+        this.walletMovementService = walletMovementService;
+        this.transactionRepository = transactionRepository;
+        this.ledgerEntryService = ledgerEntryService;
+        this.ledgerEngine = ledgerEngine;
+        this.transactionService = transactionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Pays a fare from the passenger's wallet to the bus owner's wallet.
+     * Throws IllegalArgumentException for rejected payments and
+     * RuntimeException when required records are missing.
+     */
+    @Transactional
+    public PaymentReceiptDto pay(String passengerEmail, UUID busId, UUID operatorId, Money amount) {
+        validateAmount(amount);
+        WalletRefDto passengerWallet = walletRepository
+                .findWalletRef(passengerEmail, UserRole.PASSENGER, WalletType.PASSENGER)
+                .orElseThrow(() -> missingPassengerWallet(passengerEmail));
+        PaymentContextDto context = resolveContext(busId, operatorId);
+
+        // Debit passenger and credit owner with guarded updates, striped by bus
+        MovementResult movement = walletMovementService.transfer(passengerWallet.getWalletId(),
+                context.getOwnerWalletId(), amount.toBigDecimal(), busId);
+        if (!movement.isApplied()) {
+            logger.warn("Insufficient balance for passenger: {}, amount: {}", passengerEmail, amount);
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+
+        Transaction transaction = paymentContextService.newPaymentTransaction(context,
+                passengerWallet.getUserId(), passengerWallet.getWalletId(), amount.toBigDecimal());
+        transactionService.assignSyncSeqs(passengerWallet.getWalletId(), List.of(transaction));
+        transactionRepository.save(transaction);
+        ledgerEntryService.post(transaction);
+        transactionService.evictPassenger(passengerWallet.getUserId());
+
+        logger.info("Payment processed: passenger={}, bus={}, operator={}, owner={}, amount={}",
+                passengerEmail, busId, operatorId, context.getOwnerId(), amount);
+        return new PaymentReceiptDto(transaction.getId(), amount, context.getBusNumber(),
+                context.getOperatorName(), context.getOwnerEmail(), Money.of(movement.getFromBalance()));
+    }
+
+    /**
+     * Pays a fare through the ledger engine (app.ledger.enabled=true). The
+     * call returns once the payment is durable in the ledger journal; wallet
+     * balances and the transaction row reach the database asynchronously, and
+     * the receipt's transaction id is the ledger reference of that row.
+     */
+    public PaymentReceiptDto payThroughLedger(String passengerEmail, UUID busId, UUID operatorId, Money amount) {
+        validateAmount(amount);
+        WalletRefDto passengerWallet = walletRepository
+                .findWalletRef(passengerEmail, UserRole.PASSENGER, WalletType.PASSENGER)
+                .orElseThrow(() -> missingPassengerWallet(passengerEmail));
+        PaymentContextDto context = resolveContext(busId, operatorId);
+
+        LedgerReceipt receipt;
+        try {
+            receipt = ledgerEngine.pay(passengerWallet.getWalletId(), context.getOwnerWalletId(), amount,
+                    passengerWallet.getUserId(), busId, operatorId, context.getOwnerId()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (!receipt.isApplied()) {
+            logger.warn("Insufficient balance for passenger: {}, amount: {}", passengerEmail, amount);
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+
+        logger.info("Payment journaled: passenger={}, bus={}, operator={}, owner={}, amount={}, seq={}",
+                passengerEmail, busId, operatorId, context.getOwnerId(), amount, receipt.getSeq());
+        return new PaymentReceiptDto(receipt.getRef(), amount, context.getBusNumber(),
+                context.getOperatorName(), context.getOwnerEmail(), receipt.getFromBalance());
+    }
+
+    /**
+     * Applies a batch of taps uploaded by an operator's validator device in
+     * one transaction. Results are returned in request order.
+     * Tap IDs are unique per operator. When a concurrent upload of the same
+     * taps commits first, the unique key rejects this batch; it is then
+     * rolled back and applied again, and the taps the other upload recorded
+     * are reported as duplicates.
+     */
+    public List<TapResultDto> payBatch(UUID operatorUserId, List<TapRequestDto> taps) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyBatch(operatorUserId, taps));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_BATCH_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Tap batch from operator {} raced another upload, retrying. Reason: {}",
+                        operatorUserId, e.getMessage());
+            }
+        }
+    }
+
+    private List<TapResultDto> applyBatch(UUID operatorUserId, List<TapRequestDto> taps) {
+        TapResultDto[] results = new TapResultDto[taps.size()];
+        List<PaymentCommand> pending = parseTaps(operatorUserId, taps, results);
+
+        // Taps already recorded by an earlier upload
+        if (!pending.isEmpty()) {
+            Set<String> recorded = new HashSet<>(transactionRepository.findExistingClientTapIds(operatorUserId,
+                    pending.stream().map(PaymentCommand::getTapId).toList()));
+            pending.removeIf(command -> {
+                if (recorded.contains(command.tapId)) {
+                    results[command.index] = TapResultDto.duplicate(command.tapId, "Tap already recorded");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        applyAll(pending);
+        // Surface a unique key violation here rather than at commit
+        transactionRepository.flush();
+
+        for (PaymentCommand command : pending) {
+            results[command.index] = command.isApproved()
+                    ? TapResultDto.approved(command.tapId, command.receipt.getTransactionId(),
+                            command.receipt.getBalance())
+                    : TapResultDto.rejected(command.tapId, command.error.getMessage());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies many payments in one transaction and records the receipt or
+     * the error on each command. Payments are grouped by passenger wallet so
+     * each wallet is debited once when its balance covers the whole group,
+     * owner credits are summed per wallet and bus, and transaction rows are
+     * inserted in JDBC batches.
+     */
+    @Transactional
+    public void applyAll(List<PaymentCommand> commands) {
+        List<PaymentCommand> pending = new ArrayList<>(commands);
+        resolvePassengerWallets(pending);
+        resolveContexts(pending);
+
+        // Debit each passenger wallet once, falling back to one by one when the group does not fit
+        Map<UUID, List<PaymentCommand>> byWallet = new TreeMap<>();
+        for (PaymentCommand command : pending) {
+            byWallet.computeIfAbsent(command.passengerWallet.getWalletId(), id -> new ArrayList<>()).add(command);
+        }
+        List<PaymentCommand> approved = new ArrayList<>();
+        for (Map.Entry<UUID, List<PaymentCommand>> group : byWallet.entrySet()) {
+            List<PaymentCommand> walletCommands = group.getValue();
+            Money total = Money.ZERO;
+            for (PaymentCommand command : walletCommands) {
+                total = total.plus(command.amount);
+            }
+            if (walletMovementService.debit(group.getKey(), total.toBigDecimal())) {
+                approved.addAll(walletCommands);
+                continue;
+            }
+            for (PaymentCommand command : walletCommands) {
+                if (walletMovementService.debit(group.getKey(), command.amount.toBigDecimal())) {
+                    approved.add(command);
+                } else {
+                    logger.warn("Insufficient balance for passenger: {}, amount: {}", command.passengerEmail,
+                            command.amount);
+                    command.error = new IllegalArgumentException("Insufficient balance");
+                }
+            }
+        }
+
+        // Credit owners once per wallet and bus
+        Map<UUID, Map<UUID, Money>> credits = new TreeMap<>();
+        for (PaymentCommand command : approved) {
+            credits.computeIfAbsent(command.context.getOwnerWalletId(), id -> new TreeMap<>())
+                    .merge(command.busId, command.amount, Money::plus);
+        }
+        credits.forEach((ownerWalletId, byBus) -> byBus.forEach(
+                (busId, amount) -> walletMovementService.credit(ownerWalletId, amount.toBigDecimal(), busId)));
+
+        // Insert transaction rows and their ledger entries, batched by Hibernate
+        List<Transaction> transactions = new ArrayList<>(approved.size());
+        Map<UUID, List<Transaction>> byPassengerWallet = new HashMap<>();
+        for (PaymentCommand command : approved) {
+            Transaction transaction = paymentContextService.newPaymentTransaction(command.context,
+                    command.passengerWallet.getUserId(), command.passengerWallet.getWalletId(),
+                    command.amount.toBigDecimal());
+            transaction.setClientTapId(command.tapId);
+            command.transaction = transaction;
+            transactions.add(transaction);
+            byPassengerWallet.computeIfAbsent(command.passengerWallet.getWalletId(), id -> new ArrayList<>())
+                    .add(transaction);
+        }
+        transactionService.assignSyncSeqs(byPassengerWallet);
+        transactionRepository.saveAll(transactions);
+        ledgerEntryService.postAll(transactions);
+        transactionService.evictPassengers(approved.stream().map(c -> c.passengerWallet.getUserId()).toList());
+
+        issueReceipts(approved);
+    }
+
+    /**
+     * Checks the amount of a payment.
+     */
+    public void validateAmount(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            logger.warn("Invalid amount: {}", amount);
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+    }
+
+    /**
+     * Resolves the bus, operator and owner wallet of a tap and checks the
+     * operator and owner roles.
+     */
+    public PaymentContextDto resolveContext(UUID busId, UUID operatorId) {
+        PaymentContextDto context = paymentContextService.resolve(busId, operatorId);
+        if (!UserRole.OPERATOR.equals(context.getOperatorRole())) {
+            logger.warn("User is not an operator: {}", operatorId);
+            throw new IllegalArgumentException("Invalid operator");
+        }
+        if (!UserRole.OWNER.equals(context.getOwnerRole())) {
+            logger.warn("User is not an owner: {}", context.getOwnerId());
+            throw new IllegalArgumentException("Invalid owner");
+        }
+        if (context.getOwnerWalletId() == null) {
+            logger.warn("Owner wallet not found for email: {}", context.getOwnerEmail());
+            throw new RuntimeException("Owner wallet not found");
+        }
+        return context;
+    }
+
+    private List<PaymentCommand> parseTaps(UUID operatorUserId, List<TapRequestDto> taps, TapResultDto[] results) {
+        List<PaymentCommand> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < taps.size(); i++) {
+            TapRequestDto tap = taps.get(i);
+            String tapId = tap == null ? null : tap.getTapId();
+            if (tapId == null || tapId.isBlank() || tapId.length() > 64) {
+                results[i] = TapResultDto.rejected(tapId, "tapId is required and must be at most 64 characters");
+                continue;
+            }
+            if (!seen.add(tapId)) {
+                results[i] = TapResultDto.duplicate(tapId, "Duplicate tapId in batch");
+                continue;
+            }
+            if (tap.getPassengerEmail() == null || tap.getBusId() == null || tap.getOperatorId() == null
+                    || tap.getAmount() == null) {
+                results[i] = TapResultDto.rejected(tapId, "passengerEmail, busId, operatorId, and amount are required");
+                continue;
+            }
+            try {
+                UUID busId = UUID.fromString(tap.getBusId());
+                UUID operatorId = UUID.fromString(tap.getOperatorId());
+                Money amount = Money.parse(tap.getAmount());
+                validateAmount(amount);
+                if (!operatorId.equals(operatorUserId)) {
+                    results[i] = TapResultDto.rejected(tapId, "Operator does not match token");
+                    continue;
+                }
+                PaymentCommand command = new PaymentCommand(tap.getPassengerEmail(), busId, operatorId, amount);
+                command.index = i;
+                command.tapId = tapId;
+                pending.add(command);
+            } catch (IllegalArgumentException e) {
+                results[i] = TapResultDto.rejected(tapId, e.getMessage());
+            }
+        }
+        return pending;
+    }
+
+    private void resolvePassengerWallets(List<PaymentCommand> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<String> emails = new LinkedHashSet<>();
+        pending.forEach(command -> emails.add(command.passengerEmail));
+        Map<String, WalletRefDto> wallets = new HashMap<>();
+        for (WalletRefDto wallet : walletRepository.findWalletRefs(emails, UserRole.PASSENGER, WalletType.PASSENGER)) {
+            wallets.put(wallet.getEmail(), wallet);
+        }
+
+        Map<String, RuntimeException> missing = new HashMap<>();
+        pending.removeIf(command -> {
+            command.passengerWallet = wallets.get(command.passengerEmail);
+            if (command.passengerWallet != null) {
+                return false;
+            }
+            command.error = missing.computeIfAbsent(command.passengerEmail, this::missingPassengerWallet);
+            return true;
+        });
+    }
+
+    private void resolveContexts(List<PaymentCommand> pending) {
+        Map<String, PaymentContextDto> contexts = new HashMap<>();
+        Map<String, RuntimeException> errors = new HashMap<>();
+        pending.removeIf(command -> {
+            String key = command.busId + ":" + command.operatorId;
+            if (!contexts.containsKey(key) && !errors.containsKey(key)) {
+                try {
+                    contexts.put(key, resolveContext(command.busId, command.operatorId));
+                } catch (RuntimeException e) {
+                    errors.put(key, e);
+                }
+            }
+            command.context = contexts.get(key);
+            if (command.context != null) {
+                return false;
+            }
+            command.error = errors.get(key);
+            return true;
+        });
+    }
+
+    // Balance after each payment, worked back from the wallet balance after the whole group
+    private void issueReceipts(List<PaymentCommand> approved) {
+        Map<UUID, Money> running = new HashMap<>();
+        for (int i = approved.size() - 1; i >= 0; i--) {
+            PaymentCommand command = approved.get(i);
+            UUID walletId = command.passengerWallet.getWalletId();
+            Money balance = running.computeIfAbsent(walletId,
+                    id -> walletRepository.findBalanceById(id).map(Money::of).orElse(null));
+            command.receipt = new PaymentReceiptDto(command.transaction.getId(), command.amount,
+                    command.context.getBusNumber(), command.context.getOperatorName(),
+                    command.context.getOwnerEmail(), balance);
+            if (balance != null) {
+                running.put(walletId, balance.plus(command.amount));
+            }
+        }
+    }
+
+    private RuntimeException missingPassengerWallet(String passengerEmail) {
+        if (userService.findUserByEmail(passengerEmail).isEmpty()) {
+            logger.warn("Passenger not found: {}", passengerEmail);
+            return new RuntimeException("Passenger not found");
+        }
+        logger.warn("Passenger wallet not found for email: {}", passengerEmail);
+        return new RuntimeException("Passenger wallet not found");
+    }
+
+    /**
+     * A validated payment waiting to be applied, and its outcome once
+     * applyAll has run: a receipt, or the error that rejected it.
+     */
+    public static class PaymentCommand {
+        private final String passengerEmail;
+        private final UUID busId;
+        private final UUID operatorId;
+        private final Money amount;
+        private int index;
+        private String tapId;
+        private WalletRefDto passengerWallet;
+        private PaymentContextDto context;
+        private Transaction transaction;
+        private PaymentReceiptDto receipt;
+        private RuntimeException error;
+
+        public PaymentCommand(String passengerEmail, UUID busId, UUID operatorId, Money amount) {
+            this.passengerEmail = passengerEmail;
+            this.busId = busId;
+            this.operatorId = operatorId;
+            this.amount = amount;
+        }
+
+        public String getPassengerEmail() {
+            return passengerEmail;
+        }
+
+        public UUID getBusId() {
+            return busId;
+        }
+
+        public UUID getOperatorId() {
+            return operatorId;
+        }
+
+        public Money getAmount() {
+            return amount;
+        }
+
+        public String getTapId() {
+            return tapId;
+        }
+
+        public boolean isApproved() {
+            return receipt != null;
+        }
+
+        public PaymentReceiptDto getReceipt() {
+            return receipt;
+        }
+
+        public RuntimeException getError() {
+            return error;
+        }
+    }
+}
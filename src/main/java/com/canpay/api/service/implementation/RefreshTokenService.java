@@ -0,0 +1,177 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.AuthTokensDto;
+import com.canpay.api.entity.RefreshToken;
+import com.canpay.api.entity.User;
+import com.canpay.api.repository.RefreshTokenRepository;
+import com.canpay.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and redeems rotating refresh tokens.
+ * A token is "familyId.secret"; only a hash of the secret is stored. A
+ * refresh reads the family and the user and mints a new access token. The
+ * secret is rotated only once it is older than the rotation interval, so
+ * most refreshes write nothing. Any secret other than the current one is
+ * taken as reuse and revokes the family.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int SECRET_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final UserRevocationService userRevocationService;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration lifetime;
+    private final Duration rotateAfter;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            JwtService jwtService, UserRevocationService userRevocationService,
+            @Value("${app.auth.refresh.ttl-days:30}") long ttlDays,
+            @Value("${app.auth.refresh.rotate-after-hours:24}") long rotateAfterHours) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.userRevocationService = userRevocationService;
+        this.lifetime = Duration.ofDays(ttlDays);
+        this.rotateAfter = Duration.ofHours(rotateAfterHours);
+    }
+
+    /**
+     * Starts a new token family for a user who has just logged in.
+     */
+    @Transactional
+    public String issue(User user) {
+        String secret = newSecret();
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken family = refreshTokenRepository.save(
+                new RefreshToken(user.getId(), hash(secret), now, now.plus(lifetime)));
+        return family.getId() + "." + secret;
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the refresh token
+     * to use next time. Throws IllegalArgumentException when the token is
+     * unknown, expired, revoked or reused.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public AuthTokensDto refresh(String refreshToken) {
+        ParsedToken parsed = parse(refreshToken);
+        RefreshToken family = refreshTokenRepository.findById(parsed.familyId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (family.isRevoked() || family.getExpiresAt().isBefore(now)) {
+            throw new IllegalArgumentException("Refresh token expired or revoked");
+        }
+        String presentedHash = hash(parsed.secret);
+        if (!MessageDigest.isEqual(presentedHash.getBytes(StandardCharsets.US_ASCII),
+                family.getTokenHash().getBytes(StandardCharsets.US_ASCII))) {
+            refreshTokenRepository.revoke(family.getId(), now);
+            logger.warn("Refresh token reuse detected, revoked family {} of user {}", family.getId(),
+                    family.getUserId());
+            throw new IllegalArgumentException("Refresh token reuse detected");
+        }
+        if (userRevocationService.isRevoked(family.getUserId())) {
+            throw new IllegalArgumentException("Refresh token expired or revoked");
+        }
+        User user = userRepository.findById(family.getUserId())
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token expired or revoked"));
+
+        String nextToken = refreshToken;
+        if (family.getRotatedAt().plus(rotateAfter).isBefore(now)) {
+            String secret = newSecret();
+            if (refreshTokenRepository.rotate(family.getId(), presentedHash, hash(secret), now) == 0) {
+                // A concurrent refresh rotated first; this token is now stale
+                throw new IllegalArgumentException("Refresh token already rotated");
+            }
+            nextToken = family.getId() + "." + secret;
+        }
+        return new AuthTokensDto(jwtService.generateToken(user), nextToken);
+    }
+
+    /**
+     * Revokes the family of a refresh token, as on logout. Unknown tokens are
+     * ignored.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        ParsedToken parsed = parse(refreshToken);
+        refreshTokenRepository.findById(parsed.familyId)
+                .filter(family -> family.getTokenHash().equals(hash(parsed.secret)))
+                .ifPresent(family -> refreshTokenRepository.revoke(family.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revokes every refresh token family of a user.
+     */
+    @Transactional
+    public void revokeAllForUser(UUID userId) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        logger.info("Revoked {} refresh token families of user {}", revoked, userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.debug("Purged {} expired refresh token families", deleted);
+        }
+    }
+
+    private ParsedToken parse(String refreshToken) {
+        int dot = refreshToken == null ? -1 : refreshToken.indexOf('.');
+        if (dot <= 0 || dot == refreshToken.length() - 1) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        try {
+            return new ParsedToken(UUID.fromString(refreshToken.substring(0, dot)), refreshToken.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+    }
+
+    private String newSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ParsedToken {
+        private final UUID familyId;
+        private final String secret;
+
+        private ParsedToken(UUID familyId, String secret) {
+            this.familyId = familyId;
+            this.secret = secret;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.dto.BankAccountDto;
+import com.canpay.api.dto.RecentTransactionDto;
+import com.canpay.api.dto.SyncResultDto;
+import com.canpay.api.dto.SyncStateDto;
+import com.canpay.api.entity.Wallet.WalletType;
+import com.canpay.api.repository.TransactionRepository;
+import com.canpay.api.repository.bankaccount.BankAccountRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.canpay.api.service.ledger.LedgerEngine;
+import com.canpay.api.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Incremental sync of a passenger's balance, transactions and bank accounts
+ * for the mobile app. The cursor returned by one sync encodes the change
+ * markers it saw; the next sync reads the current markers in one query and
+ * only loads what moved. The cursor doubles as the ETag.
+ * Transactions are tracked by the passenger wallet's sync sequence, which
+ * is handed out under the wallet's row lock and so becomes visible in
+ * commit order: a transaction numbered below the cursor has always
+ * committed before the cursor was read.
+ */
+@Service
+public class SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+    private static final int MAX_SYNC_TRANSACTIONS = 50;
+
+    private final DWalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final LedgerEngine ledgerEngine;
+
+    public SyncService(DWalletRepository walletRepository, TransactionRepository transactionRepository,
+            BankAccountRepository bankAccountRepository, LedgerEngine ledgerEngine) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.ledgerEngine = ledgerEngine;
+    }
+
+    /**
+     * Returns what changed for the passenger since the given cursor, or
+     * everything when the cursor is null. Throws IllegalArgumentException for
+     * a malformed cursor and RuntimeException when the passenger has no wallet.
+     */
+    @Transactional(readOnly = true)
+    public SyncResultDto sync(UUID passengerId, String since) {
+        SyncStateDto state = walletRepository.findSyncState(passengerId, WalletType.PASSENGER)
+                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+        Money balance = ledgerEngine.balanceOf(state.getWalletId()).orElseGet(() -> Money.of(state.getBalance()));
+        SyncCursor current = new SyncCursor(balance.getCents(), state.getSyncSeq(), state.getBankAccountCount(),
+                state.getBankAccountsUpdatedAt());
+        SyncCursor previous = since == null || since.isBlank() ? null : SyncCursor.decode(since);
+        String cursor = current.encode();
+
+        if (current.equals(previous)) {
+            logger.debug("Sync unchanged for passenger: {}", passengerId);
+            return new SyncResultDto(cursor, false, balance, List.of(), false, null);
+        }
+
+        List<RecentTransactionDto> transactions = List.of();
+        boolean reset = previous == null;
+        if (previous == null || current.syncSeq != previous.syncSeq) {
+            // One extra row tells whether the delta fits in a single response
+            PageRequest page = PageRequest.of(0, MAX_SYNC_TRANSACTIONS + 1);
+            transactions = previous == null
+                    ? transactionRepository.findRecentByPassengerId(passengerId, page)
+                    : transactionRepository.findRecentByPassengerIdAfterSeq(passengerId, previous.syncSeq, page);
+            if (transactions.size() > MAX_SYNC_TRANSACTIONS) {
+                transactions = List.copyOf(transactions.subList(0, MAX_SYNC_TRANSACTIONS));
+                reset = true;
+            }
+        }
+
+        List<BankAccountDto> bankAccounts = null;
+        if (previous == null || current.bankAccountCount != previous.bankAccountCount
+                || !Objects.equals(current.bankAccountsUpdatedAt, previous.bankAccountsUpdatedAt)) {
+            bankAccounts = bankAccountRepository.findByUser_Id(passengerId).stream()
+                    .map(BankAccountDto::new)
+                    .toList();
+        }
+
+        logger.info("Sync for passenger: {}, transactions: {}, reset: {}, bankAccountsChanged: {}",
+                passengerId, transactions.size(), reset, bankAccounts != null);
+        return new SyncResultDto(cursor, true, balance, transactions, reset, bankAccounts);
+    }
+
+    /**
+     * Change markers seen by a sync, passed to clients as an opaque string.
+     */
+    private static final class SyncCursor {
+        private final long balanceCents;
+        private final long syncSeq;
+        private final long bankAccountCount;
+        private final LocalDateTime bankAccountsUpdatedAt;
+
+        private SyncCursor(long balanceCents, long syncSeq, long bankAccountCount,
+                LocalDateTime bankAccountsUpdatedAt) {
+            this.balanceCents = balanceCents;
+            this.syncSeq = syncSeq;
+            this.bankAccountCount = bankAccountCount;
+            this.bankAccountsUpdatedAt = bankAccountsUpdatedAt;
+        }
+
+        private String encode() {
+            String raw = balanceCents + "|" + syncSeq + "|" + bankAccountCount + "|" + format(bankAccountsUpdatedAt);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static SyncCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new SyncCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                        parse(parts[3]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        private static String format(LocalDateTime time) {
+            return time != null ? time.toString() : "";
+        }
+
+        private static LocalDateTime parse(String time) {
+            return time.isEmpty() ? null : LocalDateTime.parse(time);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof SyncCursor other
+                    && balanceCents == other.balanceCents
+                    && syncSeq == other.syncSeq
+                    && bankAccountCount == other.bankAccountCount
+                    && Objects.equals(bankAccountsUpdatedAt, other.bankAccountsUpdatedAt));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(balanceCents, syncSeq, bankAccountCount, bankAccountsUpdatedAt);
+        }
+    }
+}
@@ -1,34 +1,112 @@
 package com.canpay.api.service.implementation;
 
+import com.canpay.api.dto.RecentTransactionDto;
 import com.canpay.api.entity.Transaction;
-import com.canpay.api.entity.User;
 import com.canpay.api.repository.TransactionRepository;
-import com.canpay.api.repository.UserRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 
+/**
+ * Reads a passenger's most recent transactions.
+ * The list is read with one bounded query and kept in a small per-passenger
+ * cache; payment and recharge writes evict the passengers they touch and
+ * number their new transactions for delta sync.
+ */
 @Service
 public class TransactionService {
+    private static final int RECENT_LIMIT = 10;
+
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final DWalletRepository walletRepository;
+    private final Cache<UUID, List<RecentTransactionDto>> recentCache;
     private final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
-    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository) {
+    public TransactionService(TransactionRepository transactionRepository, DWalletRepository walletRepository,
+            @Value("${app.transactions.recent-cache.max-size:10000}") long maxSize,
+            @Value("${app.transactions.recent-cache.ttl-seconds:60}") long ttlSeconds) {
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this.walletRepository = walletRepository;
+        this.recentCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
     }
 
-    public List<Transaction> getRecentTransactions(String passengerEmail) {
-        User passenger = userRepository.findByEmail(passengerEmail)
-                .orElseThrow(() -> {
-                    logger.warn("Passenger not found: {}", passengerEmail);
-                    return new RuntimeException("Passenger not found");
-                });
-        List<Transaction> transactions = transactionRepository.findTop10ByPassengerOrderByHappenedAtDesc(passenger);
-        logger.info("Fetched {} recent transactions for passenger: {}", transactions.size(), passengerEmail);
+    public List<RecentTransactionDto> getRecentTransactions(UUID passengerId) {
+        List<RecentTransactionDto> transactions = recentCache.get(passengerId,
+                id -> transactionRepository.findRecentByPassengerId(id, PageRequest.of(0, RECENT_LIMIT)));
+        logger.info("Fetched {} recent transactions for passenger: {}", transactions.size(), passengerId);
         return transactions;
     }
-}
\ No newline at end of file
+
+    /**
+     * Numbers new transactions of one passenger wallet in its sync sequence.
+     * Call in the transaction that inserts them, after the wallet's balance
+     * update has locked its row: the lock is held until commit, so numbers
+     * become visible in the order they were handed out.
+     */
+    public void assignSyncSeqs(UUID passengerWalletId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        if (walletRepository.advanceSyncSeq(passengerWalletId, transactions.size()) == 0) {
+            throw new IllegalStateException("Wallet not found: " + passengerWalletId);
+        }
+        long seq = walletRepository.findSyncSeqById(passengerWalletId) - transactions.size();
+        for (Transaction transaction : transactions) {
+            transaction.setSyncSeq(++seq);
+        }
+    }
+
+    /**
+     * Numbers new transactions of several passenger wallets, in wallet ID
+     * order.
+     */
+    public void assignSyncSeqs(Map<UUID, List<Transaction>> byPassengerWallet) {
+        new TreeMap<>(byPassengerWallet).forEach(this::assignSyncSeqs);
+    }
+
+    /**
+     * Evicts the cached recent transactions of a passenger whose
+     * transactions have changed.
+     */
+    public void evictPassenger(UUID passengerId) {
+        runNowAndAfterCommit(() -> recentCache.invalidate(passengerId));
+    }
+
+    /**
+     * Evicts the cached recent transactions of several passengers.
+     */
+    public void evictPassengers(Collection<UUID> passengerIds) {
+        List<UUID> ids = List.copyOf(passengerIds);
+        runNowAndAfterCommit(() -> recentCache.invalidateAll(ids));
+    }
+
+    // Evicting again after commit stops a concurrent miss from caching the old list
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.entity.User;
+import com.canpay.api.jwt.JwtConfig;
+import com.canpay.api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory set of users whose access tokens must no longer be accepted.
+ * Blocked and inactive users are loaded from the database at startup and
+ * reconciled periodically; status changes and deletions made on this node
+ * are pushed in directly and take effect on the next request. Pushed
+ * changes are kept for a token lifetime so a reconcile that read the
+ * database just before them cannot undo them.
+ */
+@Service
+public class UserRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRevocationService.class);
+    private static final List<User.UserStatus> REVOKED_STATUSES =
+            List.of(User.UserStatus.BLOCKED, User.UserStatus.INACTIVE);
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, Boolean> recentChanges;
+    private volatile Set<UUID> revoked = Set.of();
+
+    public UserRevocationService(UserRepository userRepository, JwtConfig jwtConfig,
+            @Value("${app.jwt.revocation.reconcile-interval-ms:60000}") long reconcileIntervalMs) {
+        this.userRepository = userRepository;
+        this.recentChanges = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(jwtConfig.getTokenExpirationAfterMinutes())
+                        .plusMillis(2 * reconcileIntervalMs))
+                .build();
+    }
+
+    @PostConstruct
+    void load() {
+        reconcile();
+    }
+
+    /**
+     * Whether tokens issued to the user must be rejected.
+     */
+    public boolean isRevoked(UUID userId) {
+        Boolean changed = recentChanges.getIfPresent(userId);
+        return changed != null ? changed : revoked.contains(userId);
+    }
+
+    /**
+     * Records a status change made on this node.
+     */
+    public void statusChanged(UUID userId, User.UserStatus status) {
+        recentChanges.put(userId, REVOKED_STATUSES.contains(status));
+    }
+
+    /**
+     * Records that a user was deleted; their outstanding tokens are rejected
+     * until they expire.
+     */
+    public void userDeleted(UUID userId) {
+        recentChanges.put(userId, true);
+    }
+
+    /**
+     * Reloads blocked and inactive users, picking up changes made on other
+     * nodes or directly in the database.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.jwt.revocation.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            revoked = Set.copyOf(userRepository.findIdsByStatusIn(REVOKED_STATUSES));
+            logger.debug("Reconciled revoked users: {}", revoked.size());
+        } catch (RuntimeException e) {
+            // Keep the previous set; the next run retries
+            logger.error("Failed to reconcile revoked users: {}", e.getMessage());
+        }
+    }
+}
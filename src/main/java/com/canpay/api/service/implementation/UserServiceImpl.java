@@ -1,5 +1,6 @@
 package com.canpay.api.service.implementation;
 
+import com.canpay.api.dto.LoginResultDto;
 import com.canpay.api.entity.BankAccount;
 import com.canpay.api.entity.User;
 import com.canpay.api.entity.User.UserRole;
@@ -27,14 +28,16 @@ public class UserServiceImpl implements UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     private final BankAccountRepository bankAccountRepository;
     private final DWalletRepository walletRepository;
+    private final WalletStripeService walletStripeService;
     @Value("${app.base-url}")
     private String baseUrl;
 
     public UserServiceImpl(UserRepository userRepository, BankAccountRepository bankAccountRepository,
-            DWalletRepository walletRepository) {
+            DWalletRepository walletRepository, WalletStripeService walletStripeService) {
         this.userRepository = userRepository;
         this.bankAccountRepository = bankAccountRepository;
         this.walletRepository = walletRepository;
+        this.walletStripeService = walletStripeService;
     }
 
     @Transactional
@@ -50,15 +53,31 @@ public class UserServiceImpl implements UserService {
 
     public User registerWithEmail(String email, String roleStr) {
         UserRole role = UserRole.valueOf(roleStr.toUpperCase());
-
-        // Check if email-role combination already exists
-        if (userRepository.findByEmailAndRole(email, role).isPresent()) {
+        LoginResultDto result = loginOrRegister(email, role);
+        if (!result.isNewUser()) {
             throw new IllegalArgumentException("User already exists with this email and role.");
         }
+        return result.getUser();
+    }
+
+    /**
+     * Resolves an OTP login to the user with the given email and role,
+     * registering the role when it is new. All roles of the email are read
+     * with one query, which answers both the existence and the role-limit
+     * checks; a new role costs one insert on top.
+     */
+    @Transactional
+    @Override
+    public LoginResultDto loginOrRegister(String email, UserRole role) {
+        List<User> accounts = userRepository.findAllByEmail(email);
+        for (User account : accounts) {
+            if (account.getRole() == role) {
+                return new LoginResultDto(account, false);
+            }
+        }
 
         // Check if user has less than 3 roles
-        long roleCount = countRolesByEmail(email);
-        if (roleCount >= 3) {
+        if (accounts.stream().map(User::getRole).distinct().count() >= 3) {
             throw new IllegalArgumentException("User already has maximum of 3 roles.");
         }
 
@@ -66,7 +85,7 @@ public class UserServiceImpl implements UserService {
         user.setEmail(email);
         user.setRole(role);
         user.setStatus(User.UserStatus.PENDING);
-        return userRepository.save(user);
+        return new LoginResultDto(userRepository.save(user), true);
     }
 
     @Transactional
@@ -318,10 +337,10 @@ public class UserServiceImpl implements UserService {
         }
 
         // Find wallet balance
-        Optional<Wallet> walletOpt = walletRepository.findByUser(user);
+        Optional<Wallet> walletOpt = walletRepository.findByUser(user).map(walletStripeService::foldInto);
         Map<String, Object> walletDetails = new HashMap<>();
         if (walletOpt.isPresent()) {
-            walletDetails.put("balance", walletOpt.get().getBalance());
+            walletDetails.put("balance", walletOpt.get().getAvailableBalance());
         } else {
             logger.info("No wallet found for user: {}", email);
             walletDetails.put("balance", null);
@@ -0,0 +1,149 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Moves money between wallets with guarded set-based updates instead of
+ * read-modify-write on Wallet entities.
+ * A debit only succeeds if the balance covers the amount, so concurrent
+ * payments against the same wallet can never overdraw it or lose an update.
+ */
+@Service
+public class WalletMovementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletMovementService.class);
+
+    private final DWalletRepository walletRepository;
+    private final WalletStripeService walletStripeService;
+
+    public WalletMovementService(DWalletRepository walletRepository, WalletStripeService walletStripeService) {
+        this.walletRepository = walletRepository;
+        this.walletStripeService = walletStripeService;
+    }
+
+    /**
+     * Debits the source wallet and credits the destination wallet in one
+     * transaction. Nothing is written if the source balance is insufficient.
+     */
+    @Transactional
+    public MovementResult transfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount) {
+        return transfer(fromWalletId, toWalletId, amount, null);
+    }
+
+    /**
+     * Same as {@link #transfer(UUID, UUID, BigDecimal)}, but when striped
+     * owner credits are enabled the credit lands on the destination slot
+     * chosen by the stripe key. The destination balance is not reported then.
+     */
+    @Transactional
+    public MovementResult transfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, UUID stripeKey) {
+        requirePositive(amount);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (walletRepository.debitIfSufficient(fromWalletId, amount, now) == 0) {
+            logger.warn("Debit rejected for wallet: {}, amount: {}", fromWalletId, amount);
+            return MovementResult.rejected();
+        }
+
+        boolean striped = creditWallet(toWalletId, amount, stripeKey, now);
+
+        // Rows are locked by the updates above, so these reads see our own writes
+        BigDecimal fromBalance = walletRepository.findBalanceById(fromWalletId).orElse(null);
+        BigDecimal toBalance = striped ? null : walletRepository.findBalanceById(toWalletId).orElse(null);
+        logger.debug("Moved {} from wallet {} to wallet {}", amount, fromWalletId, toWalletId);
+        return MovementResult.applied(fromBalance, toBalance);
+    }
+
+    /**
+     * Debits a wallet only if its balance covers the amount.
+     * Returns whether the debit was applied.
+     */
+    @Transactional
+    public boolean debit(UUID walletId, BigDecimal amount) {
+        requirePositive(amount);
+        return walletRepository.debitIfSufficient(walletId, amount, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Credits a wallet, on the slot chosen by the stripe key when striped
+     * owner credits are enabled.
+     */
+    @Transactional
+    public void credit(UUID walletId, BigDecimal amount, UUID stripeKey) {
+        requirePositive(amount);
+        creditWallet(walletId, amount, stripeKey, LocalDateTime.now());
+    }
+
+    /**
+     * Credits a wallet and returns its new balance.
+     */
+    @Transactional
+    public BigDecimal credit(UUID walletId, BigDecimal amount) {
+        requirePositive(amount);
+        if (walletRepository.credit(walletId, amount, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Wallet not found: " + walletId);
+        }
+        return walletRepository.findBalanceById(walletId).orElse(null);
+    }
+
+    // Returns whether the credit went to a stripe slot instead of the wallet row
+    private boolean creditWallet(UUID walletId, BigDecimal amount, UUID stripeKey, LocalDateTime now) {
+        if (stripeKey != null && walletStripeService.isEnabled()) {
+            walletStripeService.credit(walletId, stripeKey, amount);
+            return true;
+        }
+        if (walletRepository.credit(walletId, amount, now) == 0) {
+            throw new IllegalStateException("Wallet not found: " + walletId);
+        }
+        return false;
+    }
+
+    private void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+    }
+
+    /**
+     * Outcome of a wallet movement with the balances after the update.
+     */
+    public static class MovementResult {
+        private final boolean applied;
+        private final BigDecimal fromBalance;
+        private final BigDecimal toBalance;
+
+        private MovementResult(boolean applied, BigDecimal fromBalance, BigDecimal toBalance) {
+            this.applied = applied;
+            this.fromBalance = fromBalance;
+            this.toBalance = toBalance;
+        }
+
+        public static MovementResult applied(BigDecimal fromBalance, BigDecimal toBalance) {
+            return new MovementResult(true, fromBalance, toBalance);
+        }
+
+        public static MovementResult rejected() {
+            return new MovementResult(false, null, null);
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+
+        public BigDecimal getFromBalance() {
+            return fromBalance;
+        }
+
+        public BigDecimal getToBalance() {
+            return toBalance;
+        }
+    }
+}
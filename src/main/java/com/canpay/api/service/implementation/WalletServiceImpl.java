@@ -1,64 +1,142 @@
 package com.canpay.api.service.implementation;
 
+import com.canpay.api.dto.RechargeReceiptDto;
+import com.canpay.api.dto.WalletHistoryItemDto;
+import com.canpay.api.dto.WalletHistoryPageDto;
+import com.canpay.api.dto.WalletRefDto;
 import com.canpay.api.entity.*;
 import com.canpay.api.entity.User.UserRole;
 import com.canpay.api.entity.Wallet.WalletType;
 import com.canpay.api.repository.UserRepository;
 import com.canpay.api.repository.TransactionRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
 import com.canpay.api.service.WalletService;
+import com.canpay.api.service.ledger.LedgerEngine;
+import com.canpay.api.service.ledger.LedgerReceipt;
+import com.canpay.api.util.Money;
 import com.canpay.api.util.WalletNumberGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class WalletServiceImpl implements WalletService {
 
     final static Logger logger = LoggerFactory.getLogger(WalletServiceImpl.class);
+    private static final int MAX_HISTORY_PAGE = 100;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final DWalletRepository walletRepository;
+    private final WalletMovementService walletMovementService;
+    private final LedgerEntryService ledgerEntryService;
+    private final LedgerEngine ledgerEngine;
+    private final TransactionService transactionService;
 
-    public WalletServiceImpl(UserRepository userRepository, TransactionRepository transactionRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public WalletServiceImpl(UserRepository userRepository, TransactionRepository transactionRepository,
+            DWalletRepository walletRepository, WalletMovementService walletMovementService,
+            LedgerEntryService ledgerEntryService, LedgerEngine ledgerEngine, TransactionService transactionService) {
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.walletMovementService = walletMovementService;
+        this.ledgerEntryService = ledgerEntryService;
+        this.ledgerEngine = ledgerEngine;
+        this.transactionService = transactionService;
     }
 
+    /**
+     * Recharges a passenger wallet with one guarded increment and records a
+     * RECHARGE transaction, without loading the user. Only a passenger who
+     * has no wallet yet takes the slower path that creates one.
+     */
     @Transactional
     @Override
-    public User rechargePassengerWallet(String email, double amount) {
+    public RechargeReceiptDto rechargePassengerWallet(String email, Money amount) {
         logger.debug("Recharging passenger wallet for email: {}, amount: {}", email, amount);
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+
+        WalletRefDto wallet = walletRepository.findWalletRef(email, UserRole.PASSENGER, WalletType.PASSENGER)
+                .orElse(null);
+        if (wallet == null) {
+            return rechargeNewWallet(email, amount);
+        }
 
+        if (ledgerEngine.isEnabled()) {
+            // The ledger engine owns the balance; the projector writes it back with the RECHARGE row
+            LedgerReceipt receipt;
+            try {
+                receipt = ledgerEngine.recharge(wallet.getWalletId(), amount, wallet.getUserId()).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+            logger.info("Passenger wallet recharge journaled for email: {}, walletNumber: {}, amount: {}", email,
+                    wallet.getWalletNumber(), amount);
+            return new RechargeReceiptDto(receipt.getRef(), wallet.getWalletNumber(), amount, receipt.getToBalance());
+        }
+
+        BigDecimal balance = walletMovementService.credit(wallet.getWalletId(), amount.toBigDecimal());
+        Transaction transaction = recordRecharge(wallet.getUserId(), wallet.getWalletId(), amount);
+        logger.info("Passenger wallet recharged for email: {}, walletNumber: {}, amount: {}", email,
+                wallet.getWalletNumber(), amount);
+        return new RechargeReceiptDto(transaction.getId(), wallet.getWalletNumber(), amount, Money.of(balance));
+    }
+
+    // First recharge of a passenger without a wallet: create it with the recharged balance
+    private RechargeReceiptDto rechargeNewWallet(String email, Money amount) {
         User user = userRepository.findByEmailAndRole(email, UserRole.PASSENGER)
                 .orElseThrow(() -> {
                     logger.error("User not found for email: {} and role: PASSENGER", email);
                     return new RuntimeException("User not found for email: " + email + " and role: PASSENGER");
                 });
 
-        BigDecimal amountDecimal = BigDecimal.valueOf(amount);
-        Wallet wallet = user.getWallet();
-        if (wallet == null || wallet.getType() != WalletType.PASSENGER) {
-            wallet = new Wallet(user, WalletNumberGenerator.generateWalletNumber(user.getId()), WalletType.PASSENGER);
-            wallet.setBalance(BigDecimal.ZERO);
-            user.setWallet(wallet);
-        }
-        wallet.setBalance(wallet.getBalance().add(amountDecimal));
-        logger.info("Passenger wallet recharged for email: {}, walletNumber: {}, amount: {}", email,
+        Wallet wallet = new Wallet(user, WalletNumberGenerator.generateWalletNumber(user.getId()), WalletType.PASSENGER);
+        wallet.setBalance(amount.toBigDecimal());
+        walletRepository.save(wallet);
+        user.setWallet(wallet);
+
+        Transaction transaction = recordRecharge(user.getId(), wallet.getId(), amount);
+        logger.info("Passenger wallet created and recharged for email: {}, walletNumber: {}, amount: {}", email,
                 wallet.getWalletNumber(), amount);
+        return new RechargeReceiptDto(transaction.getId(), wallet.getWalletNumber(), amount, amount);
+    }
 
-        User updatedUser = userRepository.save(user);
-        logger.debug("Passenger wallet recharge completed for email: {}, walletNumber: {}, new balance: {}",
-                email, wallet.getWalletNumber(), wallet.getBalance());
-        return updatedUser;
+    private Transaction recordRecharge(UUID passengerId, UUID walletId, Money amount) {
+        Transaction transaction = new Transaction(amount.toBigDecimal(), Transaction.TransactionType.RECHARGE,
+                entityManager.getReference(User.class, passengerId));
+        transaction.setToWallet(entityManager.getReference(Wallet.class, walletId));
+        transaction.setStatus(Transaction.TransactionStatus.APPROVED);
+        transaction.setNote("Wallet recharge");
+        transactionService.assignSyncSeqs(walletId, List.of(transaction));
+        transactionRepository.save(transaction);
+        ledgerEntryService.post(transaction);
+        transactionService.evictPassenger(passengerId);
+        return transaction;
     }
 
     @Override
-    public double getPassengerWalletBalance(String email) {
+    public Money getPassengerWalletBalance(String email) {
         logger.debug("Fetching passenger wallet balance for email: {}", email);
 
         User user = userRepository.findByEmailAndRole(email, UserRole.PASSENGER)
@@ -70,9 +148,9 @@ public class WalletServiceImpl implements WalletService {
         Wallet wallet = user.getWallet();
         if (wallet == null || wallet.getType() != WalletType.PASSENGER) {
             logger.debug("No passenger wallet found for email: {}", email);
-            return 0.0;
+            return Money.ZERO;
         }
-        return wallet.getBalance().doubleValue();
+        return currentBalance(wallet);
     }
 
 
@@ -92,15 +170,20 @@ public class WalletServiceImpl implements WalletService {
         if (wallet == null || wallet.getType() != Wallet.WalletType.PASSENGER) {
             logger.debug("No passenger wallet found for email: {}", email);
             result.put("walletNumber", null);
-            result.put("balance", 0.0);
+            result.put("balance", Money.ZERO);
         } else {
             result.put("walletNumber", wallet.getId().toString());
-            result.put("balance", wallet.getBalance().doubleValue());
+            result.put("balance", currentBalance(wallet));
         }
 
         return result;
     }
 
+    // The ledger engine's balance is ahead of the database while projection catches up
+    private Money currentBalance(Wallet wallet) {
+        return ledgerEngine.balanceOf(wallet.getId()).orElseGet(() -> Money.of(wallet.getBalance()));
+    }
+
     @Override
     public User getUserByEmailAndRole(String email) {
         logger.debug("Fetching user by email: {} and role: PASSENGER", email);
@@ -186,11 +269,67 @@ public class WalletServiceImpl implements WalletService {
     // return busWallet.getBalance().doubleValue();
     // }
 
-    public List<Transaction> getTransactionHistory(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * Gets one page of a passenger's wallet history, newest first, using a
+     * keyset cursor on (happenedAt, id) from the previous page.
+     * Throws IllegalArgumentException for a malformed cursor.
+     */
+    public WalletHistoryPageDto getWalletHistory(String email, String cursor, int limit,
+            Transaction.TransactionType type, Transaction.TransactionStatus status) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE));
+        WalletRefDto wallet = walletRepository.findWalletRef(email, UserRole.PASSENGER, WalletType.PASSENGER)
+                .orElse(null);
+        if (wallet == null) {
+            return new WalletHistoryPageDto(List.of(), null);
+        }
+
+        // One extra row tells whether there is a next page
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<WalletHistoryItemDto> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = transactionRepository.findWalletHistory(wallet.getUserId(), wallet.getWalletId(), type, status,
+                    page);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            items = transactionRepository.findWalletHistoryAfter(wallet.getUserId(), wallet.getWalletId(),
+                    after.happenedAt, after.id, type, status, page);
+        }
+
+        if (items.size() <= pageSize) {
+            return new WalletHistoryPageDto(items, null);
+        }
+        List<WalletHistoryItemDto> pageItems = items.subList(0, pageSize);
+        WalletHistoryItemDto last = pageItems.get(pageSize - 1);
+        return new WalletHistoryPageDto(List.copyOf(pageItems),
+                new HistoryCursor(last.getHappenedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Position in the history, passed to clients as an opaque string.
+     */
+    private static final class HistoryCursor {
+        private final LocalDateTime happenedAt;
+        private final UUID id;
+
+        private HistoryCursor(LocalDateTime happenedAt, UUID id) {
+            this.happenedAt = happenedAt;
+            this.id = id;
+        }
+
+        private String encode() {
+            String raw = happenedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
-        // Return empty list for now - adjust based on your repository method
-        return transactionRepository.findAll(); // Replace with correct method
+        private static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int bar = raw.indexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, bar)),
+                        UUID.fromString(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
     }
 }
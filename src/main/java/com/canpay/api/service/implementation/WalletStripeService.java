@@ -0,0 +1,147 @@
+package com.canpay.api.service.implementation;
+
+import com.canpay.api.entity.Wallet;
+import com.canpay.api.entity.WalletCreditSlot;
+import com.canpay.api.repository.WalletCreditSlotRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Striped credit mode for owner wallets.
+ * When app.wallet.owner-credit-stripes is greater than one, payment credits
+ * to an owner wallet are spread over that many slot rows keyed by bus, so a
+ * large fleet does not serialize on a single wallet row. Slot balances are
+ * folded into reads and compacted into the wallet balance periodically.
+ */
+@Service
+public class WalletStripeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletStripeService.class);
+
+    private final WalletCreditSlotRepository slotRepository;
+    private final DWalletRepository walletRepository;
+    private final TransactionTemplate newTransaction;
+
+    @Value("${app.wallet.owner-credit-stripes:0}")
+    private int stripes;
+
+    public WalletStripeService(WalletCreditSlotRepository slotRepository, DWalletRepository walletRepository,
+            PlatformTransactionManager transactionManager) {
+        this.slotRepository = slotRepository;
+        this.walletRepository = walletRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Whether owner credits should be striped.
+     */
+    public boolean isEnabled() {
+        return stripes > 1;
+    }
+
+    /**
+     * Credits one slot of the wallet, chosen by the stripe key.
+     * Slots are provisioned on first use.
+     */
+    @Transactional
+    public void credit(UUID walletId, UUID stripeKey, BigDecimal amount) {
+        int slot = Math.floorMod(stripeKey.hashCode(), stripes);
+        LocalDateTime now = LocalDateTime.now();
+        if (slotRepository.creditSlot(walletId, slot, amount, now) > 0) {
+            return;
+        }
+        provisionSlots(walletId);
+        if (slotRepository.creditSlot(walletId, slot, amount, now) == 0) {
+            throw new IllegalStateException("Credit slot " + slot + " missing for wallet: " + walletId);
+        }
+    }
+
+    /**
+     * Gets the credit held in slots that is not yet part of the wallet balance.
+     */
+    public BigDecimal pendingCredit(UUID walletId) {
+        return slotRepository.sumBalanceByWalletId(walletId);
+    }
+
+    /**
+     * Folds slot credit into the wallet's in-memory balance for owner wallets,
+     * so reads stay exact between compactions.
+     */
+    public Wallet foldInto(Wallet wallet) {
+        if (wallet != null && wallet.getType() == Wallet.WalletType.OWNER && wallet.getId() != null) {
+            wallet.setStripedCredit(pendingCredit(wallet.getId()));
+        }
+        return wallet;
+    }
+
+    /**
+     * Periodically moves slot credit into wallet balances.
+     * Runs regardless of the stripe setting so leftovers are drained after
+     * striping is switched off.
+     */
+    @Scheduled(fixedDelayString = "${app.wallet.stripe-compaction-interval-ms:60000}")
+    public void compact() {
+        for (UUID walletId : slotRepository.findWalletIdsWithPendingCredit()) {
+            try {
+                newTransaction.executeWithoutResult(status -> compactWallet(walletId));
+            } catch (RuntimeException e) {
+                logger.error("Failed to compact credit slots for wallet: {}. Reason: {}", walletId, e.getMessage());
+            }
+        }
+    }
+
+    private void compactWallet(UUID walletId) {
+        // Locking the slots keeps concurrent credits out until they are zeroed
+        BigDecimal total = slotRepository.findByWalletIdForUpdate(walletId).stream()
+                .map(WalletCreditSlot::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (walletRepository.credit(walletId, total, now) == 0) {
+            logger.warn("Dropping credit slots of deleted wallet: {}, amount: {}", walletId, total);
+            slotRepository.deleteByWalletId(walletId);
+            return;
+        }
+        slotRepository.resetByWalletId(walletId, now);
+        logger.debug("Compacted {} of striped credit into wallet: {}", total, walletId);
+    }
+
+    private void provisionSlots(UUID walletId) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                Set<Integer> existing = new HashSet<>(slotRepository.findSlotsByWalletId(walletId));
+                List<WalletCreditSlot> missing = new ArrayList<>();
+                for (int slot = 0; slot < stripes; slot++) {
+                    if (!existing.contains(slot)) {
+                        missing.add(new WalletCreditSlot(walletId, slot));
+                    }
+                }
+                slotRepository.saveAllAndFlush(missing);
+            });
+            logger.info("Provisioned {} credit slots for wallet: {}", stripes, walletId);
+        } catch (DataIntegrityViolationException e) {
+            // Another payment provisioned the slots first
+            logger.debug("Credit slots for wallet {} already provisioned", walletId);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.canpay.api.service.ledger;
+
+import com.canpay.api.repository.WalletCreditSlotRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.canpay.api.service.implementation.WalletStripeService;
+import com.canpay.api.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional in-memory wallet ledger (app.ledger.enabled=true).
+ * The engine owns every wallet balance as cents in a primitive array indexed
+ * by wallet. A single writer thread applies payment and recharge commands
+ * from a bounded queue, appends each applied command to a memory-mapped
+ * journal and syncs the journal once per drained batch before completing the
+ * callers' futures. Snapshots are written periodically, and the
+ * {@link LedgerProjector} copies durable records into the database in the
+ * background, so the database is not on the acknowledgement path.
+ */
+@Service
+public class LedgerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final DWalletRepository walletRepository;
+    private final WalletCreditSlotRepository slotRepository;
+    private final WalletStripeService walletStripeService;
+    private final LedgerProjector projector;
+    private final boolean enabled;
+
+    @Value("${app.ledger.dir:./data/ledger}")
+    private String directory;
+
+    @Value("${app.ledger.capacity:1000000}")
+    private int capacity;
+
+    @Value("${app.ledger.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${app.ledger.max-batch:1024}")
+    private int maxBatch;
+
+    @Value("${app.ledger.journal-segment-records:262144}")
+    private int segmentRecords;
+
+    @Value("${app.ledger.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMs;
+
+    @Value("${app.ledger.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    // Wallet index is read by request threads; the arrays below are written by the writer only
+    private final Map<UUID, Integer> index = new ConcurrentHashMap<>();
+    private AtomicLongArray balances;
+    private UUID[] walletIds;
+    private int count;
+
+    private BlockingQueue<Command> queue;
+    private LedgerJournal journal;
+    private LedgerSnapshots snapshots;
+    private long nextSeq;
+    private long snapshotSeq;
+    private long lastSnapshotAt;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean failed;
+
+    public LedgerEngine(DWalletRepository walletRepository, WalletCreditSlotRepository slotRepository,
+            WalletStripeService walletStripeService, LedgerProjector projector,
+            @Value("${app.ledger.enabled:false}") boolean enabled) {
+        this.walletRepository = walletRepository;
+        this.slotRepository = slotRepository;
+        this.walletStripeService = walletStripeService;
+        this.projector = projector;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether payments and recharges run against the ledger engine.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (walletStripeService.isEnabled()) {
+            throw new IllegalStateException("app.ledger.enabled cannot be combined with app.wallet.owner-credit-stripes");
+        }
+        balances = new AtomicLongArray(capacity);
+        walletIds = new UUID[capacity];
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Path dir = Path.of(directory);
+        journal = new LedgerJournal(dir, segmentRecords);
+        snapshots = new LedgerSnapshots(dir);
+
+        recover();
+
+        running = true;
+        projector.start();
+        writer = new Thread(this::drainLoop, "ledger-writer");
+        writer.start();
+        logger.info("Ledger engine started with {} wallets at seq {}", count, nextSeq - 1);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        projector.stop();
+        journal.close();
+    }
+
+    /**
+     * Moves a fare from a passenger wallet to an owner wallet. The future
+     * completes once the payment is durable in the journal, or with a
+     * rejected receipt if the balance is insufficient.
+     */
+    public CompletableFuture<LedgerReceipt> pay(UUID fromWalletId, UUID toWalletId, Money amount,
+            UUID passengerId, UUID busId, UUID operatorId, UUID ownerId) {
+        return submit(new Command(LedgerRecord.Type.PAYMENT, toCents(amount), fromWalletId, toWalletId,
+                passengerId, busId, operatorId, ownerId, openingBalanceOf(fromWalletId),
+                openingBalanceOf(toWalletId)));
+    }
+
+    /**
+     * Credits a passenger wallet with a recharge.
+     */
+    public CompletableFuture<LedgerReceipt> recharge(UUID walletId, Money amount, UUID passengerId) {
+        return submit(new Command(LedgerRecord.Type.RECHARGE, toCents(amount), null, walletId, passengerId,
+                null, null, null, null, openingBalanceOf(walletId)));
+    }
+
+    /**
+     * Current balance of a wallet held by the engine, if it has taken the
+     * wallet over.
+     */
+    public Optional<Money> balanceOf(UUID walletId) {
+        Integer slot = walletId == null || !enabled ? null : index.get(walletId);
+        return slot == null ? Optional.empty() : Optional.of(Money.ofCents(balances.get(slot)));
+    }
+
+    /**
+     * Reads the database balance of a wallet the engine has not taken over
+     * yet, on the caller's thread so the writer never waits on the database.
+     * Returns null when the engine already holds the wallet; wallets are
+     * never dropped from the index, so the writer will find it there.
+     */
+    private Long openingBalanceOf(UUID walletId) {
+        if (!running || index.containsKey(walletId)) {
+            return null;
+        }
+        BigDecimal balance = walletRepository.findBalanceById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
+        return toCents(balance.add(walletStripeService.pendingCredit(walletId)));
+    }
+
+    private CompletableFuture<LedgerReceipt> submit(Command command) {
+        if (!running || failed) {
+            throw new IllegalStateException("Ledger engine is not running");
+        }
+        try {
+            if (!queue.offer(command, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Ledger queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing ledger command", e);
+        }
+        return command.result;
+    }
+
+    private void drainLoop() {
+        List<Command> batch = new ArrayList<>(maxBatch);
+        List<LedgerRecord> written = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Command first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    for (Command command : batch) {
+                        apply(command, written);
+                    }
+                    // One sync for the whole batch, then acknowledge
+                    journal.force();
+                    for (Command command : batch) {
+                        command.result.complete(command.receipt);
+                    }
+                    projector.enqueue(written);
+                }
+                if (System.currentTimeMillis() - lastSnapshotAt >= snapshotIntervalMs) {
+                    snapshot();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, e);
+                return;
+            } catch (RuntimeException e) {
+                // State may be ahead of the journal now; stop and let a restart recover from disk
+                logger.error("Ledger writer failed, stopping engine. Reason: {}", e.getMessage(), e);
+                fail(batch, e);
+                return;
+            } finally {
+                batch.clear();
+                written.clear();
+            }
+        }
+    }
+
+    private void apply(Command command, List<LedgerRecord> written) {
+        int to;
+        int from = -1;
+        try {
+            to = slotOf(command.toWalletId, command.toOpeningCents, written);
+            if (command.fromWalletId != null) {
+                from = slotOf(command.fromWalletId, command.fromOpeningCents, written);
+            }
+        } catch (IllegalStateException e) {
+            command.result.completeExceptionally(e);
+            command.receipt = null;
+            return;
+        }
+
+        if (from >= 0 && balances.get(from) < command.amountCents) {
+            command.receipt = LedgerReceipt.rejected();
+            return;
+        }
+        long seq = nextSeq++;
+        UUID ref = UUID.randomUUID();
+        LedgerRecord record = new LedgerRecord(command.type, seq, System.currentTimeMillis(), command.amountCents,
+                ref, command.fromWalletId, command.toWalletId, command.passengerId, command.busId,
+                command.operatorId, command.ownerId);
+        journal.append(record);
+        written.add(record);
+
+        long fromBalance = from >= 0 ? balances.addAndGet(from, -command.amountCents) : 0;
+        long toBalance = balances.addAndGet(to, command.amountCents);
+        command.receipt = LedgerReceipt.applied(ref, seq, from >= 0 ? Money.ofCents(fromBalance) : null,
+                Money.ofCents(toBalance));
+    }
+
+    // Takes a wallet over with the balance its submitter read, the first time the engine sees it
+    private int slotOf(UUID walletId, Long openingCents, List<LedgerRecord> written) {
+        Integer slot = index.get(walletId);
+        if (slot != null) {
+            return slot;
+        }
+        if (openingCents == null) {
+            throw new IllegalStateException("No opening balance for wallet: " + walletId);
+        }
+        if (count == capacity) {
+            throw new IllegalStateException("Ledger capacity of " + capacity + " wallets exceeded");
+        }
+        long cents = openingCents;
+        LedgerRecord open = new LedgerRecord(LedgerRecord.Type.OPEN, nextSeq++, System.currentTimeMillis(), cents,
+                UUID.randomUUID(), null, walletId, null, null, null, null);
+        journal.append(open);
+        written.add(open);
+        return register(walletId, cents);
+    }
+
+    private int register(UUID walletId, long cents) {
+        Integer existing = index.get(walletId);
+        if (existing != null) {
+            balances.set(existing, cents);
+            return existing;
+        }
+        if (count == capacity) {
+            throw new IllegalStateException("Ledger capacity of " + capacity + " wallets exceeded");
+        }
+        int slot = count++;
+        walletIds[slot] = walletId;
+        balances.set(slot, cents);
+        index.put(walletId, slot);
+        return slot;
+    }
+
+    private void recover() throws IOException {
+        long projectedSeq = projector.loadCheckpoint();
+        snapshotSeq = snapshots.load(this::register);
+        long baseSeq;
+        if (snapshotSeq >= 0) {
+            baseSeq = snapshotSeq;
+            logger.info("Loaded ledger snapshot at seq {} with {} wallets", snapshotSeq, count);
+        } else {
+            // Without a snapshot the database holds everything up to the projection checkpoint
+            baseSeq = projectedSeq;
+            loadFromDatabase();
+        }
+
+        List<LedgerRecord> backlog = new ArrayList<>();
+        long lastSeq = journal.open(record -> {
+            if (record.getSeq() > baseSeq) {
+                replay(record);
+            }
+            if (record.getSeq() > projectedSeq) {
+                backlog.add(record);
+            }
+        });
+        projector.enqueue(backlog);
+        nextSeq = Math.max(lastSeq, Math.max(baseSeq, projectedSeq)) + 1;
+        snapshot();
+    }
+
+    private void loadFromDatabase() {
+        Map<UUID, BigDecimal> pendingCredit = new HashMap<>();
+        for (Object[] row : slotRepository.sumBalanceGroupedByWalletId()) {
+            pendingCredit.put((UUID) row[0], (BigDecimal) row[1]);
+        }
+        for (Object[] row : walletRepository.findAllBalances()) {
+            UUID walletId = (UUID) row[0];
+            BigDecimal balance = ((BigDecimal) row[1]).add(pendingCredit.getOrDefault(walletId, BigDecimal.ZERO));
+            register(walletId, toCents(balance));
+        }
+        logger.info("Loaded {} wallet balances from the database", count);
+    }
+
+    private void replay(LedgerRecord record) {
+        switch (record.getType()) {
+            case OPEN -> register(record.getToWalletId(), record.getAmountCents());
+            case PAYMENT -> {
+                balances.addAndGet(indexOf(record.getFromWalletId()), -record.getAmountCents());
+                balances.addAndGet(indexOf(record.getToWalletId()), record.getAmountCents());
+            }
+            case RECHARGE -> balances.addAndGet(indexOf(record.getToWalletId()), record.getAmountCents());
+        }
+    }
+
+    // Replayed movements always follow the wallet's OPEN record or snapshot entry
+    private int indexOf(UUID walletId) {
+        Integer slot = index.get(walletId);
+        if (slot == null) {
+            throw new IllegalStateException("Ledger journal references unknown wallet: " + walletId);
+        }
+        return slot;
+    }
+
+    private void snapshot() {
+        long seq = nextSeq - 1;
+        lastSnapshotAt = System.currentTimeMillis();
+        if (seq == snapshotSeq) {
+            return;
+        }
+        long[] copy = new long[count];
+        for (int i = 0; i < count; i++) {
+            copy[i] = balances.get(i);
+        }
+        try {
+            snapshots.write(seq, walletIds, copy, count);
+            snapshotSeq = seq;
+            journal.deleteSegmentsThrough(Math.min(snapshotSeq, projector.getProjectedSeq()));
+            logger.debug("Wrote ledger snapshot at seq {} with {} wallets", seq, count);
+        } catch (IOException e) {
+            logger.error("Failed to write ledger snapshot at seq {}. Reason: {}", seq, e.getMessage());
+        }
+    }
+
+    private void fail(List<Command> batch, Exception cause) {
+        failed = true;
+        running = false;
+        IllegalStateException error = new IllegalStateException("Ledger engine stopped", cause);
+        batch.forEach(command -> command.result.completeExceptionally(error));
+        Command command;
+        while ((command = queue.poll()) != null) {
+            command.result.completeExceptionally(error);
+        }
+    }
+
+    private static long toCents(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        return amount.getCents();
+    }
+
+    // Database balances are DECIMAL with two places; rounding only guards against wider columns
+    private static long toCents(BigDecimal balance) {
+        return balance.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * A queued payment or recharge and the future its caller waits on.
+     */
+    private static class Command {
+        private final LedgerRecord.Type type;
+        private final long amountCents;
+        private final UUID fromWalletId;
+        private final UUID toWalletId;
+        private final UUID passengerId;
+        private final UUID busId;
+        private final UUID operatorId;
+        private final UUID ownerId;
+        // Database balances read by the submitter for wallets the engine did not hold yet
+        private final Long fromOpeningCents;
+        private final Long toOpeningCents;
+        private final CompletableFuture<LedgerReceipt> result = new CompletableFuture<>();
+        private LedgerReceipt receipt;
+
+        private Command(LedgerRecord.Type type, long amountCents, UUID fromWalletId, UUID toWalletId,
+                UUID passengerId, UUID busId, UUID operatorId, UUID ownerId, Long fromOpeningCents,
+                Long toOpeningCents) {
+            this.type = type;
+            this.amountCents = amountCents;
+            this.fromWalletId = fromWalletId;
+            this.toWalletId = toWalletId;
+            this.passengerId = passengerId;
+            this.busId = busId;
+            this.operatorId = operatorId;
+            this.ownerId = ownerId;
+            this.fromOpeningCents = fromOpeningCents;
+            this.toOpeningCents = toOpeningCents;
+        }
+    }
+}
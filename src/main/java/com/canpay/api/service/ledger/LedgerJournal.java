@@ -0,0 +1,168 @@
+package com.canpay.api.service.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of ledger records in memory-mapped segment files.
+ * Segments are named after the sequence number of their first record and
+ * hold a fixed number of records. Only the engine's writer thread appends;
+ * {@link #force()} makes everything appended since the last call durable.
+ */
+class LedgerJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Segment> segments = new ArrayList<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int forcedPosition;
+    private long lastSeq;
+
+    LedgerJournal(Path directory, int segmentRecords) {
+        this.directory = directory;
+        this.segmentBytes = segmentRecords * LedgerRecord.SIZE;
+    }
+
+    /**
+     * Reads every valid record in order and positions the journal for
+     * appending after the last one. Returns the last sequence number found,
+     * or 0 for an empty journal.
+     */
+    long open(Consumer<LedgerRecord> consumer) throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(Path::getFileName).map(Path::toString)
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> new Segment(Long.parseLong(name.substring(PREFIX.length(),
+                            name.length() - SUFFIX.length())), directory.resolve(name)))
+                    .sorted((a, b) -> Long.compare(a.firstSeq, b.firstSeq))
+                    .forEach(segments::add);
+        }
+
+        for (int i = 0; i < segments.size(); i++) {
+            boolean active = i == segments.size() - 1;
+            map(segments.get(i).path);
+            position = 0;
+            while (position + LedgerRecord.SIZE <= segmentBytes) {
+                LedgerRecord record = LedgerRecord.readFrom(buffer, position);
+                if (record == null) {
+                    break;
+                }
+                lastSeq = record.getSeq();
+                consumer.accept(record);
+                position += LedgerRecord.SIZE;
+            }
+            if (!active) {
+                channel.close();
+            }
+        }
+        forcedPosition = position;
+        logger.info("Opened ledger journal with {} segments, last seq {}", segments.size(), lastSeq);
+        return lastSeq;
+    }
+
+    /**
+     * Appends a record, rolling over to a new segment when the current one
+     * is full. The record is not durable until {@link #force()}.
+     */
+    void append(LedgerRecord record) {
+        try {
+            if (buffer == null || position + LedgerRecord.SIZE > segmentBytes) {
+                roll(record.getSeq());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment", e);
+        }
+        record.writeTo(buffer, position);
+        position += LedgerRecord.SIZE;
+        lastSeq = record.getSeq();
+    }
+
+    /**
+     * Flushes records appended since the last call to the storage device.
+     */
+    void force() {
+        if (buffer != null && position > forcedPosition) {
+            buffer.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    /**
+     * Deletes segments whose records all have a sequence number up to the
+     * given one. The active segment is always kept.
+     */
+    void deleteSegmentsThrough(long seq) {
+        while (segments.size() > 1 && segments.get(1).firstSeq - 1 <= seq) {
+            Segment segment = segments.remove(0);
+            try {
+                Files.deleteIfExists(segment.path);
+                logger.debug("Deleted journal segment {}", segment.path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete journal segment {}. Reason: {}", segment.path, e.getMessage());
+                segments.add(0, segment);
+                return;
+            }
+        }
+    }
+
+    long getLastSeq() {
+        return lastSeq;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        force();
+        if (channel != null) {
+            channel.close();
+        }
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+        segments.add(new Segment(firstSeq, path));
+        map(path);
+        position = 0;
+        forcedPosition = 0;
+    }
+
+    private void map(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private static class Segment {
+        private final long firstSeq;
+        private final Path path;
+
+        private Segment(long firstSeq, Path path) {
+            this.firstSeq = firstSeq;
+            this.path = path;
+        }
+    }
+}
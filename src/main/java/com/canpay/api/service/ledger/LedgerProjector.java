@@ -0,0 +1,240 @@
+package com.canpay.api.service.ledger;
+
+import com.canpay.api.entity.Bus;
+import com.canpay.api.entity.LedgerCheckpoint;
+import com.canpay.api.entity.Transaction;
+import com.canpay.api.entity.User;
+import com.canpay.api.entity.Wallet;
+import com.canpay.api.repository.BusRepository;
+import com.canpay.api.repository.LedgerCheckpointRepository;
+import com.canpay.api.repository.TransactionRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.canpay.api.service.implementation.LedgerEntryService;
+import com.canpay.api.service.implementation.TransactionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projects durable ledger records into the wallets and transactions tables
+ * on a background thread. Each batch applies the summed balance deltas,
+ * inserts the transaction rows with their ledger entries and advances the
+ * checkpoint in one database transaction, so a record is projected exactly
+ * once across restarts.
+ */
+@Component
+public class LedgerProjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerProjector.class);
+    private static final String CHECKPOINT = "projection";
+    private static final int MAX_BATCH = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final DWalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final BusRepository busRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final LedgerEntryService ledgerEntryService;
+    private final TransactionService transactionService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LedgerRecord> pending = new LinkedBlockingQueue<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile long projectedSeq;
+    private volatile boolean running;
+    private Thread thread;
+
+    public LedgerProjector(DWalletRepository walletRepository, TransactionRepository transactionRepository,
+            BusRepository busRepository, LedgerCheckpointRepository checkpointRepository,
+            LedgerEntryService ledgerEntryService, TransactionService transactionService,
+            PlatformTransactionManager transactionManager) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.busRepository = busRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.ledgerEntryService = ledgerEntryService;
+        this.transactionService = transactionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reads the sequence number of the last projected record.
+     */
+    long loadCheckpoint() {
+        projectedSeq = checkpointRepository.findByName(CHECKPOINT).map(LedgerCheckpoint::getLastSeq).orElse(0L);
+        return projectedSeq;
+    }
+
+    /**
+     * Queues durable records for projection.
+     */
+    void enqueue(Collection<LedgerRecord> records) {
+        pending.addAll(records);
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "ledger-projector");
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Sequence number of the last record written to the database.
+     */
+    long getProjectedSeq() {
+        return projectedSeq;
+    }
+
+    /**
+     * Number of durable records not yet in the database.
+     */
+    int getLag() {
+        return pending.size();
+    }
+
+    private void run() {
+        List<LedgerRecord> batch = new ArrayList<>(MAX_BATCH);
+        long backoff = 100;
+        while (running || !pending.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    LedgerRecord first = pending.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, MAX_BATCH - 1);
+                }
+                transactionTemplate.executeWithoutResult(status -> project(batch));
+                projectedSeq = batch.get(batch.size() - 1).getSeq();
+                batch.clear();
+                backoff = 100;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the batch and retry; the journal stays the source of truth meanwhile
+                logger.error("Ledger projection failed, retrying in {} ms. Reason: {}", backoff, e.getMessage());
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void project(List<LedgerRecord> batch) {
+        LedgerCheckpoint checkpoint = checkpointRepository.findByName(CHECKPOINT)
+                .orElseGet(() -> new LedgerCheckpoint(CHECKPOINT));
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<UUID, Long> deltas = new TreeMap<>();
+        Set<UUID> busIds = new HashSet<>();
+        List<LedgerRecord> movements = new ArrayList<>();
+        for (LedgerRecord record : batch) {
+            if (record.getSeq() <= checkpoint.getLastSeq() || record.getType() == LedgerRecord.Type.OPEN) {
+                continue;
+            }
+            if (record.getFromWalletId() != null) {
+                deltas.merge(record.getFromWalletId(), -record.getAmountCents(), Long::sum);
+            }
+            deltas.merge(record.getToWalletId(), record.getAmountCents(), Long::sum);
+            if (record.getBusId() != null) {
+                busIds.add(record.getBusId());
+            }
+            movements.add(record);
+        }
+
+        deltas.forEach((walletId, cents) -> {
+            if (cents != 0 && walletRepository.applyDelta(walletId, BigDecimal.valueOf(cents, 2), now) == 0) {
+                logger.warn("Skipping ledger delta for missing wallet: {}, amount: {}", walletId,
+                        BigDecimal.valueOf(cents, 2));
+            }
+        });
+
+        Map<UUID, String> busNumbers = new HashMap<>();
+        if (!busIds.isEmpty()) {
+            for (Object[] row : busRepository.findBusNumbers(busIds)) {
+                busNumbers.put((UUID) row[0], (String) row[1]);
+            }
+        }
+        List<Transaction> transactions = new ArrayList<>(movements.size());
+        Map<UUID, List<Transaction>> byPassengerWallet = new HashMap<>();
+        for (LedgerRecord record : movements) {
+            Transaction transaction = toTransaction(record, busNumbers);
+            transactions.add(transaction);
+            UUID passengerWalletId = record.getType() == LedgerRecord.Type.PAYMENT
+                    ? record.getFromWalletId()
+                    : record.getToWalletId();
+            byPassengerWallet.computeIfAbsent(passengerWalletId, id -> new ArrayList<>()).add(transaction);
+        }
+        transactionService.assignSyncSeqs(byPassengerWallet);
+        transactionRepository.saveAll(transactions);
+        ledgerEntryService.postAll(transactions);
+        transactionService.evictPassengers(movements.stream().map(LedgerRecord::getPassengerId).toList());
+
+        checkpoint.setLastSeq(batch.get(batch.size() - 1).getSeq());
+        checkpointRepository.save(checkpoint);
+        logger.debug("Projected ledger records through seq {}", checkpoint.getLastSeq());
+    }
+
+    private Transaction toTransaction(LedgerRecord record, Map<UUID, String> busNumbers) {
+        BigDecimal amount = BigDecimal.valueOf(record.getAmountCents(), 2);
+        User passenger = entityManager.getReference(User.class, record.getPassengerId());
+        Transaction transaction;
+        if (record.getType() == LedgerRecord.Type.PAYMENT) {
+            transaction = new Transaction(amount, Transaction.TransactionType.PAYMENT, passenger,
+                    entityManager.getReference(Bus.class, record.getBusId()),
+                    entityManager.getReference(User.class, record.getOperatorId()));
+            transaction.setOwner(entityManager.getReference(User.class, record.getOwnerId()));
+            transaction.setFromWallet(entityManager.getReference(Wallet.class, record.getFromWalletId()));
+            transaction.setNote("Payment for bus " + busNumbers.getOrDefault(record.getBusId(), ""));
+        } else {
+            transaction = new Transaction(amount, Transaction.TransactionType.RECHARGE, passenger);
+            transaction.setNote("Wallet recharge");
+        }
+        transaction.setToWallet(entityManager.getReference(Wallet.class, record.getToWalletId()));
+        // The movement happened when the engine applied it, not when it was projected
+        transaction.setHappenedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestamp()),
+                ZoneId.systemDefault()));
+        transaction.setStatus(Transaction.TransactionStatus.APPROVED);
+        transaction.setLedgerRef(record.getRef());
+        return transaction;
+    }
+}
@@ -0,0 +1,56 @@
+package com.canpay.api.service.ledger;
+
+import com.canpay.api.util.Money;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a ledger command once it is durable in the journal.
+ * A rejected receipt means the source wallet had insufficient balance.
+ */
+public final class LedgerReceipt {
+
+    private static final LedgerReceipt REJECTED = new LedgerReceipt(false, null, 0, null, null);
+
+    private final boolean applied;
+    private final UUID ref;
+    private final long seq;
+    private final Money fromBalance;
+    private final Money toBalance;
+
+    private LedgerReceipt(boolean applied, UUID ref, long seq, Money fromBalance, Money toBalance) {
+        this.applied = applied;
+        this.ref = ref;
+        this.seq = seq;
+        this.fromBalance = fromBalance;
+        this.toBalance = toBalance;
+    }
+
+    static LedgerReceipt applied(UUID ref, long seq, Money fromBalance, Money toBalance) {
+        return new LedgerReceipt(true, ref, seq, fromBalance, toBalance);
+    }
+
+    static LedgerReceipt rejected() {
+        return REJECTED;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public UUID getRef() {
+        return ref;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Money getFromBalance() {
+        return fromBalance;
+    }
+
+    public Money getToBalance() {
+        return toBalance;
+    }
+}
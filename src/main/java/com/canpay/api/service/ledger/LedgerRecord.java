@@ -0,0 +1,161 @@
+package com.canpay.api.service.ledger;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed-size journal record of the ledger engine.
+ * OPEN records capture the balance a wallet had when the engine first took
+ * it over; PAYMENT and RECHARGE records are applied movements. Amounts are
+ * in cents.
+ */
+public final class LedgerRecord {
+
+    /** Size of a record in the journal, in bytes. */
+    public static final int SIZE = 160;
+
+    private static final int BODY_SIZE = 144;
+    private static final UUID NONE = new UUID(0L, 0L);
+
+    private final Type type;
+    private final long seq;
+    private final long timestamp;
+    private final long amountCents;
+    private final UUID ref;
+    private final UUID fromWalletId;
+    private final UUID toWalletId;
+    private final UUID passengerId;
+    private final UUID busId;
+    private final UUID operatorId;
+    private final UUID ownerId;
+
+    public LedgerRecord(Type type, long seq, long timestamp, long amountCents, UUID ref, UUID fromWalletId,
+            UUID toWalletId, UUID passengerId, UUID busId, UUID operatorId, UUID ownerId) {
+        this.type = type;
+        this.seq = seq;
+        this.timestamp = timestamp;
+        this.amountCents = amountCents;
+        this.ref = ref;
+        this.fromWalletId = fromWalletId;
+        this.toWalletId = toWalletId;
+        this.passengerId = passengerId;
+        this.busId = busId;
+        this.operatorId = operatorId;
+        this.ownerId = ownerId;
+    }
+
+    /**
+     * Writes the record at the given offset, followed by its checksum.
+     */
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.put(offset, type.code);
+        buffer.putLong(offset + 8, seq);
+        buffer.putLong(offset + 16, timestamp);
+        buffer.putLong(offset + 24, amountCents);
+        putUuid(buffer, offset + 32, ref);
+        putUuid(buffer, offset + 48, fromWalletId);
+        putUuid(buffer, offset + 64, toWalletId);
+        putUuid(buffer, offset + 80, passengerId);
+        putUuid(buffer, offset + 96, busId);
+        putUuid(buffer, offset + 112, operatorId);
+        putUuid(buffer, offset + 128, ownerId);
+        buffer.putInt(offset + BODY_SIZE, checksum(buffer, offset));
+    }
+
+    /**
+     * Reads the record at the given offset, or returns null if the slot is
+     * empty or was torn by a crash.
+     */
+    static LedgerRecord readFrom(ByteBuffer buffer, int offset) {
+        Type type = Type.of(buffer.get(offset));
+        if (type == null || buffer.getInt(offset + BODY_SIZE) != checksum(buffer, offset)) {
+            return null;
+        }
+        return new LedgerRecord(type, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24), getUuid(buffer, offset + 32), getUuid(buffer, offset + 48),
+                getUuid(buffer, offset + 64), getUuid(buffer, offset + 80), getUuid(buffer, offset + 96),
+                getUuid(buffer, offset + 112), getUuid(buffer, offset + 128));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, BODY_SIZE));
+        return (int) crc.getValue();
+    }
+
+    private static void putUuid(ByteBuffer buffer, int offset, UUID value) {
+        UUID uuid = value == null ? NONE : value;
+        buffer.putLong(offset, uuid.getMostSignificantBits());
+        buffer.putLong(offset + 8, uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer, int offset) {
+        UUID uuid = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+        return NONE.equals(uuid) ? null : uuid;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public UUID getRef() {
+        return ref;
+    }
+
+    public UUID getFromWalletId() {
+        return fromWalletId;
+    }
+
+    public UUID getToWalletId() {
+        return toWalletId;
+    }
+
+    public UUID getPassengerId() {
+        return passengerId;
+    }
+
+    public UUID getBusId() {
+        return busId;
+    }
+
+    public UUID getOperatorId() {
+        return operatorId;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    // Enums
+    public enum Type {
+        OPEN((byte) 1), PAYMENT((byte) 2), RECHARGE((byte) 3);
+
+        private final byte code;
+
+        Type(byte code) {
+            this.code = code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+}
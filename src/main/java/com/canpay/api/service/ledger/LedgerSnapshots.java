@@ -0,0 +1,91 @@
+package com.canpay.api.service.ledger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes point-in-time copies of all ledger balances.
+ * A snapshot is written to a temporary file, synced and then renamed over
+ * the previous one, so a crash never leaves a partial snapshot behind.
+ */
+class LedgerSnapshots {
+
+    private static final long MAGIC = 0x43414e5041594c31L;
+
+    private final Path file;
+    private final Path tempFile;
+
+    LedgerSnapshots(Path directory) {
+        this.file = directory.resolve("snapshot.bin");
+        this.tempFile = directory.resolve("snapshot.bin.tmp");
+    }
+
+    /**
+     * Loads the latest snapshot into the consumer and returns its sequence
+     * number, or -1 if there is none.
+     */
+    long load(BalanceConsumer consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("Not a ledger snapshot: " + file);
+            }
+            long seq = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID walletId = new UUID(in.readLong(), in.readLong());
+                consumer.accept(walletId, in.readLong());
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Corrupt ledger snapshot: " + file);
+            }
+            return seq;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the first count wallets as of the given sequence.
+     */
+    void write(long seq, UUID[] walletIds, long[] balances, int count) throws IOException {
+        Files.createDirectories(file.getParent());
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile)), crc))) {
+            out.writeLong(MAGIC);
+            out.writeLong(seq);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(walletIds[i].getMostSignificantBits());
+                out.writeLong(walletIds[i].getLeastSignificantBits());
+                out.writeLong(balances[i]);
+            }
+            out.flush();
+            out.writeLong(crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    interface BalanceConsumer {
+        void accept(UUID walletId, long balanceCents);
+    }
+}
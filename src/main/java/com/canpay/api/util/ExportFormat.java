@@ -0,0 +1,42 @@
+package com.canpay.api.util;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File formats offered by the admin export endpoints.
+ */
+public enum ExportFormat {
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Parses a format name such as "csv". Throws IllegalArgumentException for
+     * an unknown format.
+     */
+    public static ExportFormat parse(String format) {
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("format must be csv or ndjson");
+    }
+}
@@ -0,0 +1,140 @@
+package com.canpay.api.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes export rows one at a time as CSV or NDJSON, optionally gzipped,
+ * so an export holds only the current row in memory. Closing the writer
+ * finishes the output but leaves the underlying stream open.
+ */
+public final class ExportWriter implements Closeable {
+
+    /** Fetch size (Integer.MIN_VALUE) that makes MySQL Connector/J stream rows instead of buffering the result */
+    public static final String STREAMING_FETCH_SIZE = "-2147483648";
+
+    private static final byte[] CSV_LINE_END = {'\r', '\n'};
+
+    private final OutputStream target;
+    private final GZIPOutputStream gzip;
+    private final OutputStream out;
+    private final ExportFormat format;
+    private final List<String> columns;
+    private final ObjectMapper objectMapper;
+
+    public ExportWriter(OutputStream target, ExportFormat format, boolean gzip, List<String> columns,
+            ObjectMapper objectMapper) throws IOException {
+        this.target = target;
+        this.gzip = gzip ? new GZIPOutputStream(target, 8192) : null;
+        this.out = new BufferedOutputStream(this.gzip != null ? this.gzip : target, 16384);
+        this.format = format;
+        this.columns = columns;
+        this.objectMapper = objectMapper;
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(columns.toArray());
+        }
+    }
+
+    /**
+     * Builds the response for an export, named after the exported list.
+     */
+    public static ResponseEntity<StreamingResponseBody> response(String name, ExportFormat format, boolean gzip,
+            StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension()).build().toString());
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * Writes one row; values are in column order.
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(values);
+            return;
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            row.put(columns.get(i), values[i]);
+        }
+        out.write(objectMapper.writeValueAsBytes(row));
+        out.write('\n');
+    }
+
+    /**
+     * Writes every row of the stream.
+     *
+     * @return the number of rows written
+     */
+    public long writeAll(Stream<Object[]> rows) throws IOException {
+        long count = 0;
+        Iterator<Object[]> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writeRow(iterator.next());
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+        target.flush();
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendCsvValue(line, values[i]);
+        }
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        out.write(CSV_LINE_END);
+    }
+
+    private static void appendCsvValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof String string && !string.isEmpty() && "=+-@\t\r".indexOf(string.charAt(0)) >= 0) {
+            // Keep spreadsheets from evaluating user-entered text as a formula
+            text = "'" + string;
+        } else {
+            text = value.toString();
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            line.append(text);
+            return;
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,53 @@
+package com.canpay.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A text template with ${name} placeholders, parsed once into literal and
+ * placeholder parts so rendering is a single pass over the parts.
+ * Unknown placeholders render as empty text.
+ */
+public final class TextTemplate {
+
+    private final List<String> literals;
+    private final List<String> names;
+    private final int sizeHint;
+
+    private TextTemplate(List<String> literals, List<String> names, int sizeHint) {
+        this.literals = literals;
+        this.names = names;
+        this.sizeHint = sizeHint;
+    }
+
+    public static TextTemplate parse(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int start = text.indexOf("${", from);
+            int end = start < 0 ? -1 : text.indexOf('}', start + 2);
+            if (end < 0) {
+                literals.add(text.substring(from));
+                break;
+            }
+            literals.add(text.substring(from, start));
+            names.add(text.substring(start + 2, end));
+            from = end + 1;
+        }
+        return new TextTemplate(List.copyOf(literals), List.copyOf(names), text.length() + 64);
+    }
+
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        for (int i = 0; i < names.size(); i++) {
+            out.append(literals.get(i));
+            String value = values.get(names.get(i));
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        return out.append(literals.get(names.size())).toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.canpay.api.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwkSetCacheTest {
+
+    private final AtomicReference<JWKSet> served = new AtomicReference<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private String jwksUri;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = served.get().toString(true).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        jwksUri = "http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void loadsKeysFromEndpointAtStartupAndSavesThem() throws Exception {
+        served.set(new JWKSet(rsaKey("k1")));
+        Path cacheFile = directory.resolve("jwks.json");
+        JwkSetCache cache = new JwkSetCache(jwksUri, cacheFile.toString());
+
+        cache.load();
+
+        assertThat(select(cache, "k1")).extracting(JWK::getKeyID).containsExactly("k1");
+        JWKSet saved = JWKSet.load(cacheFile.toFile());
+        assertThat(saved.getKeyByKeyId("k1")).isNotNull();
+        assertThat(saved.getKeyByKeyId("k1").isPrivate()).isFalse();
+    }
+
+    @Test
+    void fallsBackToDiskCacheWhenEndpointIsDown() throws Exception {
+        Path cacheFile = directory.resolve("jwks.json");
+        Files.writeString(cacheFile, new JWKSet(rsaKey("k1")).toString(true), StandardCharsets.UTF_8);
+        JwkSetCache cache = new JwkSetCache(unreachableUri(), cacheFile.toString());
+
+        cache.load();
+
+        assertThat(select(cache, "k1")).extracting(JWK::getKeyID).containsExactly("k1");
+    }
+
+    @Test
+    void refreshesOnceOnUnknownKeyId() throws Exception {
+        RSAKey k1 = rsaKey("k1");
+        served.set(new JWKSet(k1));
+        JwkSetCache cache = new JwkSetCache(jwksUri, directory.resolve("jwks.json").toString());
+        cache.load();
+        assertThat(requests).hasValue(1);
+
+        // The issuer rotates in a new key
+        served.set(new JWKSet(List.of(k1, rsaKey("k2"))));
+
+        assertThat(select(cache, "k2")).extracting(JWK::getKeyID).containsExactly("k2");
+        assertThat(requests).hasValue(2);
+
+        // Further unknown keys do not hammer the endpoint
+        assertThat(select(cache, "k3")).isEmpty();
+        assertThat(requests).hasValue(2);
+    }
+
+    private static List<JWK> select(JwkSetCache cache, String keyId) throws Exception {
+        return cache.get(new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build()), null);
+    }
+
+    // A port that was just free and has nothing listening on it
+    private static String unreachableUri() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return "http://localhost:" + socket.getLocalPort() + "/.well-known/jwks.json";
+        }
+    }
+
+    private static RSAKey rsaKey(String keyId) throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID(keyId).generate();
+    }
+}
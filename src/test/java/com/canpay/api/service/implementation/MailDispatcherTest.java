@@ -0,0 +1,205 @@
+package com.canpay.api.service.implementation;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailDispatcherTest {
+
+    private SmtpStandIn smtp;
+    private JavaMailSenderImpl mailSender;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        if (smtp != null) {
+            smtp.close();
+        }
+    }
+
+    @Test
+    void sendsThroughOneKeptOpenConnection() throws Exception {
+        start(connection -> false);
+
+        dispatcher.dispatch(message("first"), "first");
+        dispatcher.dispatch(message("second"), "second");
+
+        assertThat(smtp.delivered.poll(5, TimeUnit.SECONDS)).contains("first");
+        assertThat(smtp.delivered.poll(5, TimeUnit.SECONDS)).contains("second");
+        assertThat(smtp.connections).hasValue(1);
+    }
+
+    @Test
+    void retriesOnNewConnectionWhenServerDropsMidSend() throws Exception {
+        // The first connection is cut right after MAIL FROM
+        start(connection -> connection == 1);
+
+        dispatcher.dispatch(message("hello"), "hello");
+
+        assertThat(smtp.delivered.poll(5, TimeUnit.SECONDS)).contains("hello");
+        assertThat(smtp.connections).hasValue(2);
+        assertThat(smtp.delivered).isEmpty();
+    }
+
+    @Test
+    void reconnectsWhenIdleConnectionWasDropped() throws Exception {
+        start(connection -> false);
+        dispatcher.dispatch(message("first"), "first");
+        assertThat(smtp.delivered.poll(5, TimeUnit.SECONDS)).contains("first");
+
+        smtp.dropOpenConnections();
+        dispatcher.dispatch(message("second"), "second");
+
+        assertThat(smtp.delivered.poll(5, TimeUnit.SECONDS)).contains("second");
+        assertThat(smtp.connections).hasValue(2);
+        assertThat(smtp.delivered).isEmpty();
+    }
+
+    private void start(IntPredicate dropAfterMailFrom) throws IOException {
+        smtp = new SmtpStandIn(dropAfterMailFrom);
+        mailSender.setPort(smtp.port());
+        dispatcher = new MailDispatcher(mailSender, 10, 1, 3, 10);
+    }
+
+    private MimeMessage message(String text) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@canpay.test");
+        helper.setTo("passenger@canpay.test");
+        helper.setSubject("Test");
+        helper.setText(text);
+        return message;
+    }
+
+    /**
+     * Minimal SMTP server: accepts any envelope and keeps each message.
+     */
+    private static final class SmtpStandIn implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final IntPredicate dropAfterMailFrom;
+        private final BlockingQueue<Socket> open = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> delivered = new LinkedBlockingQueue<>();
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private SmtpStandIn(IntPredicate dropAfterMailFrom) throws IOException {
+            this.serverSocket = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+            this.dropAfterMailFrom = dropAfterMailFrom;
+            Thread acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void dropOpenConnections() throws IOException {
+            Socket socket;
+            while ((socket = open.poll()) != null) {
+                socket.close();
+            }
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    int connection = connections.incrementAndGet();
+                    open.add(socket);
+                    Thread handler = new Thread(() -> serve(socket, connection), "smtp-stand-in-" + connection);
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket, int connection) {
+            try (socket;
+                    BufferedReader in = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                    Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+                reply(out, "220 localhost ESMTP stand-in");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String verb = line.length() < 4 ? line : line.substring(0, 4);
+                    switch (verb.toUpperCase(Locale.ROOT)) {
+                        case "EHLO", "HELO", "RSET", "NOOP", "RCPT" -> reply(out, "250 OK");
+                        case "MAIL" -> {
+                            if (dropAfterMailFrom.test(connection)) {
+                                return;
+                            }
+                            reply(out, "250 OK");
+                        }
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            StringBuilder body = new StringBuilder();
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                body.append(line).append('\n');
+                            }
+                            // Count the message only once the client has been told it was accepted
+                            reply(out, "250 OK queued");
+                            delivered.add(body.toString());
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException e) {
+                // Connection dropped by the test or the client
+            } finally {
+                open.remove(socket);
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            dropOpenConnections();
+        }
+    }
+}
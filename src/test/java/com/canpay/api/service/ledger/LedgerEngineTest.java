@@ -0,0 +1,132 @@
+package com.canpay.api.service.ledger;
+
+import com.canpay.api.repository.WalletCreditSlotRepository;
+import com.canpay.api.repository.dashboard.DWalletRepository;
+import com.canpay.api.service.implementation.WalletStripeService;
+import com.canpay.api.util.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LedgerEngineTest {
+
+    private final UUID passengerWallet = UUID.randomUUID();
+    private final UUID ownerWallet = UUID.randomUUID();
+    private final UUID laterWallet = UUID.randomUUID();
+    private final UUID passengerId = UUID.randomUUID();
+
+    private DWalletRepository walletRepository;
+    private WalletCreditSlotRepository slotRepository;
+    private WalletStripeService walletStripeService;
+    private LedgerProjector projector;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        walletRepository = mock(DWalletRepository.class);
+        slotRepository = mock(WalletCreditSlotRepository.class);
+        walletStripeService = mock(WalletStripeService.class);
+        projector = mock(LedgerProjector.class);
+        when(walletStripeService.pendingCredit(any())).thenReturn(BigDecimal.ZERO);
+        when(walletRepository.findAllBalances()).thenReturn(List.of(
+                new Object[] { passengerWallet, new BigDecimal("10.00") },
+                new Object[] { ownerWallet, BigDecimal.ZERO }));
+    }
+
+    @Test
+    void replaysJournalOnTopOfSnapshotAcrossRestarts() throws Exception {
+        LedgerEngine first = start();
+        first.recharge(passengerWallet, Money.ofCents(500), passengerId).get(5, TimeUnit.SECONDS);
+        first.pay(passengerWallet, ownerWallet, Money.ofCents(300), passengerId, UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID()).get(5, TimeUnit.SECONDS);
+        first.stop();
+
+        // The snapshot taken at startup wins over the database from now on
+        when(walletRepository.findAllBalances()).thenReturn(List.of(
+                new Object[] { passengerWallet, new BigDecimal("99.00") },
+                new Object[] { ownerWallet, new BigDecimal("99.00") }));
+
+        LedgerEngine second = start();
+        assertThat(second.balanceOf(passengerWallet)).contains(Money.ofCents(1200));
+        assertThat(second.balanceOf(ownerWallet)).contains(Money.ofCents(300));
+
+        // A wallet first seen after the snapshot is recovered from its OPEN record
+        when(walletRepository.findBalanceById(laterWallet)).thenReturn(Optional.of(new BigDecimal("1.00")));
+        LedgerReceipt receipt = second.recharge(laterWallet, Money.ofCents(200), passengerId)
+                .get(5, TimeUnit.SECONDS);
+        assertThat(receipt.isApplied()).isTrue();
+        second.stop();
+
+        LedgerEngine third = start();
+        try {
+            assertThat(third.balanceOf(passengerWallet)).contains(Money.ofCents(1200));
+            assertThat(third.balanceOf(ownerWallet)).contains(Money.ofCents(300));
+            assertThat(third.balanceOf(laterWallet)).contains(Money.ofCents(300));
+        } finally {
+            third.stop();
+        }
+    }
+
+    @Test
+    void rejectsPaymentAboveBalance() throws Exception {
+        LedgerEngine engine = start();
+        try {
+            LedgerReceipt receipt = engine.pay(passengerWallet, ownerWallet, Money.ofCents(1001), passengerId,
+                    UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()).get(5, TimeUnit.SECONDS);
+            assertThat(receipt.isApplied()).isFalse();
+            assertThat(engine.balanceOf(passengerWallet)).contains(Money.ofCents(1000));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void readsOpeningBalanceOfUnknownWalletOnTheCallerThread() throws Exception {
+        LedgerEngine engine = start();
+        try {
+            UUID missingWallet = UUID.randomUUID();
+            when(walletRepository.findBalanceById(missingWallet)).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> engine.recharge(missingWallet, Money.ofCents(100), passengerId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Wallet not found");
+
+            // The writer keeps running and takes a known wallet over with the balance read at submit
+            when(walletRepository.findBalanceById(laterWallet)).thenReturn(Optional.of(new BigDecimal("2.50")));
+            LedgerReceipt receipt = engine.recharge(laterWallet, Money.ofCents(50), passengerId)
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(receipt.getToBalance()).isEqualTo(Money.ofCents(300));
+        } finally {
+            engine.stop();
+        }
+    }
+
+    private LedgerEngine start() throws Exception {
+        LedgerEngine engine = new LedgerEngine(walletRepository, slotRepository, walletStripeService, projector,
+                true);
+        ReflectionTestUtils.setField(engine, "directory", directory.toString());
+        ReflectionTestUtils.setField(engine, "capacity", 16);
+        ReflectionTestUtils.setField(engine, "queueCapacity", 16);
+        ReflectionTestUtils.setField(engine, "maxBatch", 16);
+        ReflectionTestUtils.setField(engine, "segmentRecords", 64);
+        ReflectionTestUtils.setField(engine, "snapshotIntervalMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(engine, "offerTimeoutMs", 1000L);
+        engine.start();
+        return engine;
+    }
+}
@@ -0,0 +1,77 @@
+package com.canpay.api.service.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+
+    private static final UUID WALLET = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAppendedRecordsInOrder() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(directory, 2)) {
+            journal.open(record -> { });
+            for (long seq = 1; seq <= 5; seq++) {
+                journal.append(recharge(seq, seq * 100));
+            }
+        }
+
+        List<LedgerRecord> read = new ArrayList<>();
+        try (LedgerJournal journal = new LedgerJournal(directory, 2)) {
+            assertThat(journal.open(read::add)).isEqualTo(5L);
+        }
+        assertThat(read).extracting(LedgerRecord::getSeq).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(read).extracting(LedgerRecord::getAmountCents).containsExactly(100L, 200L, 300L, 400L, 500L);
+    }
+
+    @Test
+    void stopsAtTornTailAndAppendsOverIt() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(directory, 8)) {
+            journal.open(record -> { });
+            for (long seq = 1; seq <= 3; seq++) {
+                journal.append(recharge(seq, 100));
+            }
+        }
+        // A crash mid-write leaves the last record without its checksum
+        tearRecord(directory.resolve(String.format("journal-%020d.log", 1)), 2);
+
+        List<LedgerRecord> read = new ArrayList<>();
+        try (LedgerJournal journal = new LedgerJournal(directory, 8)) {
+            assertThat(journal.open(read::add)).isEqualTo(2L);
+            journal.append(recharge(3, 700));
+        }
+        assertThat(read).extracting(LedgerRecord::getSeq).containsExactly(1L, 2L);
+
+        read.clear();
+        try (LedgerJournal journal = new LedgerJournal(directory, 8)) {
+            assertThat(journal.open(read::add)).isEqualTo(3L);
+        }
+        assertThat(read).extracting(LedgerRecord::getAmountCents).containsExactly(100L, 100L, 700L);
+    }
+
+    private static LedgerRecord recharge(long seq, long cents) {
+        return new LedgerRecord(LedgerRecord.Type.RECHARGE, seq, System.currentTimeMillis(), cents,
+                UUID.randomUUID(), null, WALLET, UUID.randomUUID(), null, null, null);
+    }
+
+    private static void tearRecord(Path segment, int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(LedgerRecord.SIZE / 2),
+                    (long) index * LedgerRecord.SIZE + LedgerRecord.SIZE / 2);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.canpay.api.service.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerRecordTest {
+
+    @Test
+    void roundTripsEveryField() {
+        LedgerRecord record = new LedgerRecord(LedgerRecord.Type.PAYMENT, 42L, 1_700_000_000_123L, 250L,
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID());
+        ByteBuffer buffer = ByteBuffer.allocate(LedgerRecord.SIZE * 2);
+
+        record.writeTo(buffer, LedgerRecord.SIZE);
+        LedgerRecord read = LedgerRecord.readFrom(buffer, LedgerRecord.SIZE);
+
+        assertThat(read).isNotNull();
+        assertThat(read).usingRecursiveComparison().isEqualTo(record);
+    }
+
+    @Test
+    void roundTripsMissingIdsAsNull() {
+        UUID walletId = UUID.randomUUID();
+        LedgerRecord record = new LedgerRecord(LedgerRecord.Type.OPEN, 1L, 1L, 1000L, UUID.randomUUID(), null,
+                walletId, null, null, null, null);
+        ByteBuffer buffer = ByteBuffer.allocate(LedgerRecord.SIZE);
+
+        record.writeTo(buffer, 0);
+        LedgerRecord read = LedgerRecord.readFrom(buffer, 0);
+
+        assertThat(read.getType()).isEqualTo(LedgerRecord.Type.OPEN);
+        assertThat(read.getToWalletId()).isEqualTo(walletId);
+        assertThat(read.getFromWalletId()).isNull();
+        assertThat(read.getPassengerId()).isNull();
+        assertThat(read.getOwnerId()).isNull();
+    }
+
+    @Test
+    void rejectsRecordWithBadChecksum() {
+        LedgerRecord record = new LedgerRecord(LedgerRecord.Type.RECHARGE, 7L, 1L, 500L, UUID.randomUUID(), null,
+                UUID.randomUUID(), UUID.randomUUID(), null, null, null);
+        ByteBuffer buffer = ByteBuffer.allocate(LedgerRecord.SIZE);
+        record.writeTo(buffer, 0);
+
+        // Flip one bit of the amount
+        buffer.put(24, (byte) (buffer.get(24) ^ 1));
+
+        assertThat(LedgerRecord.readFrom(buffer, 0)).isNull();
+    }
+
+    @Test
+    void treatsEmptySlotAsEndOfJournal() {
+        assertThat(LedgerRecord.readFrom(ByteBuffer.allocate(LedgerRecord.SIZE), 0)).isNull();
+    }
+}
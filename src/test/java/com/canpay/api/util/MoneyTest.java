@@ -0,0 +1,93 @@
+package com.canpay.api.util;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesExactAmounts() {
+        assertThat(Money.parse("12.5").getCents()).isEqualTo(1250);
+        assertThat(Money.parse(" 12.50 ").getCents()).isEqualTo(1250);
+        assertThat(Money.parse("7").getCents()).isEqualTo(700);
+        assertThat(Money.parse("0.01").getCents()).isEqualTo(1);
+        assertThat(Money.of(new BigDecimal("3.100")).getCents()).isEqualTo(310);
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimalPlaces() {
+        assertThatThrownBy(() -> Money.parse("1.005"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount must have at most two decimal places");
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.001")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount must have at most two decimal places");
+    }
+
+    @Test
+    void keepsZeroAndNegativeAmountsForCallersToValidate() {
+        assertThat(Money.parse("0")).isSameAs(Money.ZERO);
+        assertThat(Money.of(new BigDecimal("0.00")).isPositive()).isFalse();
+
+        Money negative = Money.parse("-2.50");
+        assertThat(negative.getCents()).isEqualTo(-250);
+        assertThat(negative.isPositive()).isFalse();
+        assertThat(negative.isLessThan(Money.ZERO)).isTrue();
+    }
+
+    @Test
+    void rejectsAmountsThatDoNotFitInCents() {
+        BigDecimal maxCents = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+        assertThat(Money.of(maxCents).getCents()).isEqualTo(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> Money.of(maxCents.add(new BigDecimal("0.01"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount is too large");
+        assertThatThrownBy(() -> Money.parse("1e30"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount is too large");
+        assertThatThrownBy(() -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rejectsMissingAndMalformedText() {
+        assertThatThrownBy(() -> Money.parse(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount is required");
+        assertThatThrownBy(() -> Money.parse("12,50"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid amount format");
+    }
+
+    @Test
+    void roundTripsThroughJsonAsADecimalNumber() throws Exception {
+        Holder holder = new Holder();
+        holder.amount = Money.ofCents(1250);
+
+        String json = objectMapper.writeValueAsString(holder);
+        assertThat(json).isEqualTo("{\"amount\":12.50}");
+        assertThat(objectMapper.readValue(json, Holder.class).amount).isEqualTo(holder.amount);
+        assertThat(objectMapper.readValue("{\"amount\":0.1}", Holder.class).amount.getCents()).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsInexactAmountsInJson() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"amount\":12.345}", Holder.class))
+                .isInstanceOf(JsonMappingException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Amount must have at most two decimal places");
+    }
+
+    static class Holder {
+        public Money amount;
+    }
+}